@@ -0,0 +1,372 @@
+package frc.robot.analysis;
+
+import frc.robot.utils.MotorTelemetry;
+import frc.robot.utils.SparkMaxUtils;
+import frc.robot.utils.TalonFXFaults;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Desktop summary of match logs: per motor peak and time-averaged currentOut, time spent above temperature thresholds
+ * and fault rising edges, plus loop overruns per log, then the same totals across every log.
+ *
+ * Each .wpilog is memory-mapped and decoded record by record straight out of the mapping, so a log never has to fit in
+ * the heap and steady-state decoding doesn't allocate. Logs are spread over a thread pool, one log per thread.
+ *
+ * Usage: analyzeLogs -PanalyzeArgs="<files or directories> [--temp 60,80] [--threads n]"
+ */
+public class LogAnalyzer {
+
+    private static final byte[] MAGIC = "WPILOG".getBytes(StandardCharsets.US_ASCII);
+    private static final String TELEMETRY_SUFFIX = "/telemetry";
+    private static final String OVERRUNS_ENTRY = "/profiler/overruns";
+    private static final int CONTROL_START = 0, CONTROL_FINISH = 1;
+
+    private static final int KIND_NONE = 0, KIND_MOTOR = 1, KIND_OVERRUNS = 2;
+
+    private final double[] tempThresholds;
+
+    private LogAnalyzer(double[] tempThresholds) {
+        this.tempThresholds = tempThresholds;
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        double[] thresholds = {60, 80};
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--temp") && i + 1 < args.length) {
+                thresholds = Arrays.stream(args[++i].split(","))
+                        .mapToDouble(Double::parseDouble)
+                        .toArray();
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i]));
+            } else {
+                collect(Paths.get(args[i]), files);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: analyzeLogs <files or directories> [--temp 60,80] [--threads n]");
+            System.exit(1);
+        }
+
+        LogAnalyzer analyzer = new LogAnalyzer(thresholds);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+        List<Future<LogSummary>> results = new ArrayList<>();
+        for (Path file : files) {
+            results.add(pool.submit(() -> analyzer.analyze(file)));
+        }
+        pool.shutdown();
+
+        LogSummary total = new LogSummary(null, thresholds.length);
+        for (int i = 0; i < files.size(); i++) {
+            try {
+                LogSummary summary = results.get(i).get();
+                analyzer.print(summary);
+                total.merge(summary);
+            } catch (ExecutionException e) {
+                System.err.println(files.get(i) + ": " + e.getCause().getMessage());
+            }
+        }
+        if (files.size() > 1) analyzer.print(total);
+    }
+
+    private static void collect(Path path, List<Path> files) {
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            return;
+        }
+
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.filter((file) -> file.toString().endsWith(".wpilog")).sorted().forEach(files::add);
+        } catch (IOException e) {
+            System.err.println(path + ": " + e.getMessage());
+        }
+    }
+
+    LogSummary analyze(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // a single mapping tops out at 2 GB, far past any match log
+            if (size > Integer.MAX_VALUE) throw new IOException("logs over 2 GB aren't supported");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return decode(file, buffer);
+        }
+    }
+
+    private LogSummary decode(Path file, MappedByteBuffer buffer) throws IOException {
+        int limit = buffer.limit();
+        if (limit < 12) throw new IOException("not a wpilog");
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) throw new IOException("not a wpilog");
+        }
+        if ((buffer.getShort(6) & 0xffff) < 0x0100) throw new IOException("unsupported wpilog version");
+
+        LogSummary summary = new LogSummary(file.toString(), tempThresholds.length);
+        // entry id -> what it is, grown as entries start
+        int[] kinds = new int[256];
+        MotorSummary[] motors = new MotorSummary[256];
+        MotorTelemetry telemetry = new MotorTelemetry();
+        int structSize = MotorTelemetry.struct.getSize();
+
+        int pos = 12 + buffer.getInt(8); // skip the extra header string
+        while (pos < limit) {
+            // one byte of field lengths, then entry id, payload size and timestamp, all little endian
+            int lengths = buffer.get(pos) & 0xff;
+            int idLength = (lengths & 0x3) + 1;
+            int sizeLength = ((lengths >> 2) & 0x3) + 1;
+            int timestampLength = ((lengths >> 4) & 0x7) + 1;
+            int payload = pos + 1 + idLength + sizeLength + timestampLength;
+            if (payload > limit) break;
+
+            int entry = (int) readUnsigned(buffer, pos + 1, idLength);
+            int payloadSize = (int) readUnsigned(buffer, pos + 1 + idLength, sizeLength);
+            long timestamp = readUnsigned(buffer, pos + 1 + idLength + sizeLength, timestampLength);
+            // a power cut can leave a partial record at the end
+            if (payloadSize < 0 || payload + payloadSize > limit) break;
+            pos = payload + payloadSize;
+
+            if (timestamp > summary.lastTimestamp) summary.lastTimestamp = timestamp;
+            if (summary.firstTimestamp < 0) summary.firstTimestamp = timestamp;
+
+            if (entry == 0) {
+                if (payloadSize < 5) continue;
+                int type = buffer.get(payload) & 0xff;
+                int target = buffer.getInt(payload + 1);
+                if (target < 0) continue;
+                if (target >= kinds.length) {
+                    int grown = Math.max(kinds.length * 2, target + 1);
+                    kinds = Arrays.copyOf(kinds, grown);
+                    motors = Arrays.copyOf(motors, grown);
+                }
+
+                if (type == CONTROL_START) {
+                    start(buffer, payload + 5, target, kinds, motors, summary);
+                } else if (type == CONTROL_FINISH) {
+                    kinds[target] = KIND_NONE;
+                }
+                continue;
+            }
+            if (entry >= kinds.length) continue;
+
+            if (kinds[entry] == KIND_MOTOR && payloadSize == structSize) {
+                buffer.position(payload);
+                MotorTelemetry.struct.unpackInto(telemetry, buffer);
+                motors[entry].add(timestamp, telemetry, tempThresholds);
+            } else if (kinds[entry] == KIND_OVERRUNS && payloadSize == 8) {
+                // cumulative since boot, the last value is the log's total
+                summary.overruns = Math.max(summary.overruns, buffer.getLong(payload));
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * Classify a starting entry from its name and type, the only records that allocate
+     */
+    private void start(
+            MappedByteBuffer buffer, int pos, int entry, int[] kinds, MotorSummary[] motors, LogSummary summary) {
+        int nameLength = buffer.getInt(pos);
+        String name = readString(buffer, pos + 4, nameLength);
+        int typeLength = buffer.getInt(pos + 4 + nameLength);
+        String type = readString(buffer, pos + 8 + nameLength, typeLength);
+
+        kinds[entry] = KIND_NONE;
+        if (name.endsWith(TELEMETRY_SUFFIX) && type.equals(MotorTelemetry.struct.getTypeString())) {
+            String root = name.substring(name.startsWith("/") ? 1 : 0, name.length() - TELEMETRY_SUFFIX.length());
+            kinds[entry] = KIND_MOTOR;
+            motors[entry] = summary.motors.computeIfAbsent(root, (key) -> new MotorSummary(tempThresholds.length));
+        } else if (name.equals(OVERRUNS_ENTRY)) {
+            kinds[entry] = KIND_OVERRUNS;
+        }
+    }
+
+    private static long readUnsigned(MappedByteBuffer buffer, int pos, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value |= (long) (buffer.get(pos + i) & 0xff) << (8 * i);
+        }
+        return value;
+    }
+
+    private static String readString(MappedByteBuffer buffer, int pos, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void print(LogSummary summary) {
+        System.out.println();
+        System.out.println(summary.name == null ? "All logs" : summary.name);
+        System.out.printf("  %.1f s logged, %d loop overruns%n", summary.getDurationSeconds(), summary.overruns);
+
+        StringBuilder header = new StringBuilder(String.format("  %-24s %9s %9s", "motor", "peak A", "avg A"));
+        for (double threshold : tempThresholds) {
+            header.append(String.format(" %9s", ">" + (int) threshold + "C s"));
+        }
+        header.append("  fault edges");
+        System.out.println(header);
+
+        for (Map.Entry<String, MotorSummary> entry : summary.motors.entrySet()) {
+            MotorSummary motor = entry.getValue();
+            StringBuilder line = new StringBuilder(String.format(
+                    "  %-24s %9.1f %9.1f", entry.getKey(), motor.peakCurrent, motor.getAverageCurrent()));
+            for (double seconds : motor.secondsAbove) {
+                line.append(String.format(" %9.1f", seconds));
+            }
+            line.append("  ").append(motor.describeFaultEdges());
+            System.out.println(line);
+        }
+    }
+
+    private static final class LogSummary {
+        final String name;
+        final int thresholdCount;
+        final Map<String, MotorSummary> motors = new TreeMap<>();
+        long firstTimestamp = -1, lastTimestamp = 0;
+        // summed over logs when merged
+        double mergedSeconds = 0;
+        long overruns = 0;
+
+        LogSummary(String name, int thresholdCount) {
+            this.name = name;
+            this.thresholdCount = thresholdCount;
+        }
+
+        double getDurationSeconds() {
+            if (name == null) return mergedSeconds;
+            return firstTimestamp < 0 ? 0 : (lastTimestamp - firstTimestamp) / 1e6;
+        }
+
+        void merge(LogSummary other) {
+            mergedSeconds += other.getDurationSeconds();
+            overruns += other.overruns;
+            for (Map.Entry<String, MotorSummary> entry : other.motors.entrySet()) {
+                motors.computeIfAbsent(entry.getKey(), (key) -> new MotorSummary(thresholdCount))
+                        .merge(entry.getValue());
+            }
+        }
+    }
+
+    private static final class MotorSummary {
+        long samples = 0;
+        double peakCurrent = 0;
+        // values hold until the next sample (delta mode only logs changes), so everything is time weighted
+        double currentAmpSeconds = 0;
+        double seconds = 0;
+        final double[] secondsAbove;
+        // SparkMax and TalonFX fault bits have different names, so edges are counted per controller type. Merged logs
+        // can disagree on the type when a mechanism's controller was swapped
+        final int[] talonFXFaultEdges = new int[64];
+        final int[] sparkMaxFaultEdges = new int[64];
+        boolean seenTalonFX = false, seenSparkMax = false;
+
+        private long lastTimestamp;
+        private double lastCurrent, lastTempC;
+        private long lastFaults = 0;
+        private boolean lastSparkMax = false;
+
+        MotorSummary(int thresholdCount) {
+            secondsAbove = new double[thresholdCount];
+        }
+
+        void add(long timestamp, MotorTelemetry telemetry, double[] thresholds) {
+            if (samples > 0 && timestamp > lastTimestamp) {
+                double dt = (timestamp - lastTimestamp) / 1e6;
+                seconds += dt;
+                currentAmpSeconds += lastCurrent * dt;
+                for (int i = 0; i < thresholds.length; i++) {
+                    if (lastTempC >= thresholds[i]) secondsAbove[i] += dt;
+                }
+            }
+
+            if (telemetry.currentOut > peakCurrent) peakCurrent = telemetry.currentOut;
+            boolean sparkMax = telemetry.controlMode == -1;
+            // the other type's bits mean something else, start its edges over
+            if (samples > 0 && sparkMax != lastSparkMax) lastFaults = 0;
+            int[] faultEdges = sparkMax ? sparkMaxFaultEdges : talonFXFaultEdges;
+            long rising = telemetry.faults & ~lastFaults;
+            while (rising != 0) {
+                faultEdges[Long.numberOfTrailingZeros(rising)]++;
+                rising &= rising - 1;
+            }
+
+            if (sparkMax) {
+                seenSparkMax = true;
+            } else {
+                seenTalonFX = true;
+            }
+            lastSparkMax = sparkMax;
+            lastTimestamp = timestamp;
+            lastCurrent = telemetry.currentOut;
+            lastTempC = telemetry.tempC;
+            lastFaults = telemetry.faults;
+            samples++;
+        }
+
+        double getAverageCurrent() {
+            return seconds > 0 ? currentAmpSeconds / seconds : lastCurrent;
+        }
+
+        void merge(MotorSummary other) {
+            samples += other.samples;
+            peakCurrent = Math.max(peakCurrent, other.peakCurrent);
+            currentAmpSeconds += other.currentAmpSeconds;
+            seconds += other.seconds;
+            lastCurrent = other.lastCurrent;
+            seenTalonFX |= other.seenTalonFX;
+            seenSparkMax |= other.seenSparkMax;
+            for (int i = 0; i < secondsAbove.length; i++) {
+                secondsAbove[i] += other.secondsAbove[i];
+            }
+            for (int i = 0; i < talonFXFaultEdges.length; i++) {
+                talonFXFaultEdges[i] += other.talonFXFaultEdges[i];
+                sparkMaxFaultEdges[i] += other.sparkMaxFaultEdges[i];
+            }
+        }
+
+        /**
+         * Fault edges named for the controller type, or per type when the merged logs disagree on it
+         */
+        String describeFaultEdges() {
+            if (seenTalonFX && seenSparkMax) {
+                return "TalonFX: " + describeFaultEdges(talonFXFaultEdges, TalonFXFaults.BIT_NAMES) + "; SparkMax: "
+                        + describeFaultEdges(sparkMaxFaultEdges, SparkMaxUtils.FAULT_NAMES)
+                        + " (logged as both controller types)";
+            }
+            if (seenSparkMax) return describeFaultEdges(sparkMaxFaultEdges, SparkMaxUtils.FAULT_NAMES);
+            return describeFaultEdges(talonFXFaultEdges, TalonFXFaults.BIT_NAMES);
+        }
+
+        private static String describeFaultEdges(int[] faultEdges, String[] names) {
+            StringBuilder builder = new StringBuilder();
+            for (int bit = 0; bit < faultEdges.length; bit++) {
+                if (faultEdges[bit] == 0) continue;
+                if (builder.length() > 0) builder.append(", ");
+                builder.append(bit < names.length ? names[bit] : "bit" + bit).append(" x").append(faultEdges[bit]);
+            }
+            return builder.length() == 0 ? "none" : builder.toString();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package frc.robot.units;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unit conversions the subsystems run every loop. Positions sit on a setpoint so the state lookups take the match
+ * path, not just the fall-through
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitsBenchmark {
+
+    private double elevRots = ElevPosition.fromLevel(ElevLevel.L3).getAsRotations();
+    private double leverRots = ClimbLeverAngle.fromState(ClimbState.CLOSED).getAsMotorRotations();
+    private double clampRots = ClimbClampAngle.fromState(ClimbState.CLOSED).getAsMotorRotations();
+    private double degrees = 42;
+
+    @Benchmark
+    public Optional<ElevLevel> elevGetAsElevLevel() {
+        return ElevPosition.fromRotations(elevRots).getAsElevLevel();
+    }
+
+    @Benchmark
+    public double elevGetAsInches() {
+        return ElevPosition.fromRotations(elevRots).getAsInches();
+    }
+
+    @Benchmark
+    public double leverDegreesToMotorRotations() {
+        return ClimbLeverAngle.fromLeverDegrees(degrees).getAsMotorRotations();
+    }
+
+    @Benchmark
+    public Optional<ClimbState> leverGetAsState() {
+        return ClimbLeverAngle.fromMotorRotations(leverRots).getAsState();
+    }
+
+    @Benchmark
+    public double clampDegreesToMotorRotations() {
+        return ClimbClampAngle.fromClampDegrees(degrees).getAsMotorRotations();
+    }
+
+    @Benchmark
+    public Optional<ClimbState> clampGetAsState() {
+        return ClimbClampAngle.fromMotorRotations(clampRots).getAsState();
+    }
+}
@@ -0,0 +1,118 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.hal.HAL;
+import frc.robot.units.ClimbState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a single Logger write through each path, with delta mode off so every write goes all the way through. Each
+ * invocation is its own robot loop: the untimed setup calls Logger.periodic so the write isn't decimated, and with
+ * async on waits for the logging thread to empty the queue, so the timed write is one enqueue and never a full-queue
+ * drop. Invocation level setup adds some timer overhead, compare results against each other rather than as absolutes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private LogKey.DoubleKey doubleKey;
+    private TalonFX motor;
+    private TalonFXSignals signals;
+    private final double[] doubleArray = new double[8];
+    private double value = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HAL.initialize(500, 0);
+        Logger.setDeltaMode(false, 0);
+        Logger.setAsync(async);
+
+        doubleKey = Logger.doubleKey("bench", "doubleKey");
+        motor = new TalonFX(1);
+        signals = TalonFXSignals.of(motor);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextLoop() {
+        Logger.periodic();
+        // also waits for the loop marker, so the loop has ended on the logging thread too
+        if (!Logger.awaitDrained(1)) throw new IllegalStateException("Logger queue didn't drain");
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        Logger.flushAndWait(5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Logger.setAsync(false);
+        motor.close();
+    }
+
+    @Benchmark
+    public void doubleKeySet() {
+        doubleKey.set(value++);
+    }
+
+    @Benchmark
+    public void logDouble() {
+        Logger.log("bench", "double", value++);
+    }
+
+    @Benchmark
+    public void logBoolean() {
+        Logger.log("bench", "boolean", (value++ % 2) == 0);
+    }
+
+    @Benchmark
+    public void logString() {
+        Logger.log("bench", "string", "value");
+    }
+
+    @Benchmark
+    public void logEnum() {
+        Logger.log("bench", "enum", ClimbState.OPEN);
+    }
+
+    @Benchmark
+    public void logDoubleArray() {
+        doubleArray[0] = value++;
+        Logger.log("bench", "doubleArray", doubleArray);
+    }
+
+    @Benchmark
+    public void logTalonFX() {
+        Logger.log("bench", "motor", motor);
+    }
+
+    @Benchmark
+    public void logTalonFXSignals() {
+        Logger.log("bench", "motorSignals", signals);
+    }
+
+    @Benchmark
+    public void refreshAllSignals() {
+        TalonFXSignals.refreshAll();
+    }
+}
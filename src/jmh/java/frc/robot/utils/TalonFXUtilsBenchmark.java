@@ -0,0 +1,59 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.hal.HAL;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fault reads off the batched signal snapshot, both the packed bits and the TalonFXFaults wrapper
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TalonFXUtilsBenchmark {
+
+    private TalonFX motor;
+    private TalonFXSignals signals;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HAL.initialize(500, 0);
+        motor = new TalonFX(1);
+        signals = TalonFXSignals.of(motor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        motor.close();
+    }
+
+    @Benchmark
+    public TalonFXFaults getAllActiveFaults() {
+        return TalonFXUtils.getAllActiveFaults(motor);
+    }
+
+    @Benchmark
+    public TalonFXFaults getAllStickyFaults() {
+        return TalonFXUtils.getAllStickyFaults(motor);
+    }
+
+    @Benchmark
+    public boolean hasCriticalFaultBits() {
+        return TalonFXFaults.hasCriticalFaults(signals.getActiveFaultBits());
+    }
+}
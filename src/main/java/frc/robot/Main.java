@@ -5,11 +5,13 @@
 package frc.robot;
 
 import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.utils.BootProfiler;
 
 public final class Main {
     private Main() {}
 
     public static void main(String... args) {
+        BootProfiler.mark("main");
         RobotBase.startRobot(Robot::new);
     }
 }
@@ -0,0 +1,67 @@
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.simulation.PowerDistributionSim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.utils.LogReplay;
+import frc.robot.utils.Logger;
+
+/**
+ * Re-runs a recorded match against the current code on the desktop, as fast as the code allows. Driver station state,
+ * joysticks, motor telemetry and battery voltage come from the log (see LogReplay), everything the code logs goes to a
+ * new log in the usual sim log directory, ready to diff against the original.
+ *
+ * Simulated time is paused and stepped one period per loop, so timers and commands see the same times on every run.
+ * Run with ./gradlew replay -PreplayArgs="path/to/match.wpilog"
+ */
+public final class ReplayMain {
+
+    private ReplayMain() {}
+
+    public static void main(String... args) {
+        if (args.length < 1) {
+            System.err.println("Usage: replay <log.wpilog> [--period seconds]");
+            System.exit(1);
+        }
+
+        String path = args[0];
+        double period = 0.02;
+        for (int i = 1; i < args.length - 1; i++) {
+            if (args[i].equals("--period")) period = Double.parseDouble(args[++i]);
+        }
+
+        if (!HAL.initialize(500, 0)) {
+            System.err.println("Failed to initialize the HAL");
+            System.exit(1);
+        }
+        SimHooks.pauseTiming();
+        if (!LogReplay.load(path, period)) System.exit(1);
+
+        Robot robot = new Robot();
+        PowerDistributionSim pdpSim = new PowerDistributionSim(RobotContainer.getInstance().pdp);
+
+        long loops = 0;
+        long wallStart = System.nanoTime();
+        while (LogReplay.step()) {
+            double batteryVoltage = LogReplay.getBatteryVoltage();
+            if (!Double.isNaN(batteryVoltage)) {
+                pdpSim.setVoltage(batteryVoltage);
+                RoboRioSim.setVInVoltage(batteryVoltage);
+            }
+
+            robot.replayLoop();
+            SimHooks.stepTiming(period);
+            loops++;
+        }
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+
+        Logger.println(String.format(
+                "Replayed %d loops (%.1f s of match) in %.1f s, %.1fx real time",
+                loops, loops * period, wallSeconds, loops * period / wallSeconds));
+        Logger.flushAndWait(1);
+        DataLogManager.stop();
+        System.exit(0);
+    }
+}
@@ -8,26 +8,82 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.utils.Alerts;
+import frc.robot.utils.BootProfiler;
+import frc.robot.utils.CommandTracer;
 import frc.robot.utils.ControllerUtil;
+import frc.robot.utils.FlightRecorder;
+import frc.robot.utils.GcMonitor;
+import frc.robot.utils.LogKey;
+import frc.robot.utils.LogReplay;
+import frc.robot.utils.LogRate;
 import frc.robot.utils.Logger;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.MetricsServer;
+import frc.robot.utils.SamplingProfiler;
+import frc.robot.utils.TalonFXSignals;
+import frc.robot.utils.TelemetryProfile;
 
 public class Robot extends TimedRobot {
 
+    // the subsystem periodics are their own phases, nested in the scheduler's
+    private final LoopProfiler.Phase signalsPhase = LoopProfiler.phase("signals"),
+            schedulerPhase = LoopProfiler.phase("scheduler"),
+            controllersPhase = LoopProfiler.phase("controllers"),
+            alertsPhase = LoopProfiler.phase("alerts"),
+            gcPhase = LoopProfiler.phase("gc"),
+            flightRecorderPhase = LoopProfiler.phase("flightRecorder"),
+            loggerPhase = LoopProfiler.phase("logger");
+    private final LogKey.DoubleKey batteryVoltageKey;
+
     public Robot() {
+        BootProfiler.begin("Robot constructor");
         Logger.init();
+        Logger.setDeltaMode(true, 50); // full keyframe once a second
+        Logger.setAsync(true);
+        // reapplied on every mode change, and can be picked from NT at /logger/profile in between
+        applyTelemetryProfile(false);
+        LoopProfiler.setBudgetSeconds(getPeriod());
+        LoopProfiler.setAllocationTracking(true);
+        GcMonitor.start();
+        // live-only diagnostics, skipped while replaying a log
+        boolean replaying = LogReplay.isActive();
+        if (!replaying) FlightRecorder.start(FlightRecorder.DEFAULT_WINDOW_SECONDS, getPeriod());
+        batteryVoltageKey = Logger.doubleKey("robot", "batteryVoltage");
+        batteryVoltageKey.attachStats(250, LogRate.HZ_1); // last 5 s, sag under load shows up in min and p50
+        // samples this (the main) thread, only with SamplingProfiler.ENABLED set
+        if (!replaying) SamplingProfiler.start(SamplingProfiler.DEFAULT_PERIOD_SECONDS);
         RobotContainer.getInstance(); // DO NOT DELETE | create RobotContainer instance
+        CommandTracer.start(); // after RobotContainer so its triggers are polled first
+        // pit only, stopped in robotPeriodic once the FMS is attached
+        if (!replaying) MetricsServer.start(MetricsServer.DEFAULT_PORT);
+        BootProfiler.end();
     }
 
     @Override
     public void robotPeriodic() {
+        BootProfiler.begin("first robotPeriodic"); // no-op after the first loop
+        LoopProfiler.startLoop();
+
+        signalsPhase.start();
+        TalonFXSignals.refreshAll(); // one batched CAN refresh before anything reads motor data
+        signalsPhase.stop();
+
+        schedulerPhase.start();
         CommandScheduler.getInstance().run(); // DO NOT DELETE
+        schedulerPhase.stop();
 
+        controllersPhase.start();
         ControllerUtil.periodic(RobotContainer.getInstance().hidDriver1, RobotContainer.getInstance().hidDriver2);
+        controllersPhase.stop();
 
+        alertsPhase.start();
         Alerts.driver1Missing.set(!RobotContainer.getInstance().hidDriver1.isConnected());
         Alerts.driver2Missing.set(!RobotContainer.getInstance().hidDriver2.isConnected());
-        Alerts.fmsConnected.set(DriverStation.isFMSAttached());
+        boolean fmsAttached = DriverStation.isFMSAttached();
+        Alerts.fmsConnected.set(fmsAttached);
+        MetricsServer.periodic(fmsAttached);
         double batteryVoltage = RobotContainer.getInstance().pdp.getVoltage();
+        batteryVoltageKey.set(batteryVoltage);
         if (batteryVoltage <= 10) {
             Alerts.lowBattery.set(false);
             Alerts.criticalBattery.set(true);
@@ -38,6 +94,32 @@ public class Robot extends TimedRobot {
             Alerts.lowBattery.set(false);
             Alerts.criticalBattery.set(false);
         }
+        alertsPhase.stop();
+
+        gcPhase.start();
+        GcMonitor.periodic();
+        gcPhase.stop();
+
+        flightRecorderPhase.start();
+        FlightRecorder.periodic(batteryVoltage); // after the alerts and every subsystem's motor logging
+        flightRecorderPhase.stop();
+
+        loggerPhase.start();
+        Logger.periodic(); // keep last, apart from endLoop
+        loggerPhase.stop();
+
+        // the profiler's own keys go out with the next loop's batch
+        LoopProfiler.endLoop();
+
+        BootProfiler.end();
+        BootProfiler.finish();
+    }
+
+    /**
+     * Run one iteration of the robot loop by hand, for ReplayMain. TimedRobot's own loop never starts during replay
+     */
+    void replayLoop() {
+        loopFunc();
     }
 
     @Override
@@ -50,6 +132,11 @@ public class Robot extends TimedRobot {
         RobotContainer.getInstance().shooterSub.stop();
         RobotContainer.getInstance().climbSub.stopLever();
         RobotContainer.getInstance().climbSub.stopClamp();
+
+        applyTelemetryProfile(false); // back from test mode, or the FMS attached/detached while disabled
+        Logger.flush();
+        SamplingProfiler.dump(); // flame graph of everything since the last disable
+        CommandTracer.dump();
     }
 
     @Override
@@ -59,7 +146,9 @@ public class Robot extends TimedRobot {
     public void disabledExit() {}
 
     @Override
-    public void autonomousInit() {}
+    public void autonomousInit() {
+        applyTelemetryProfile(false);
+    }
 
     @Override
     public void autonomousPeriodic() {}
@@ -68,7 +157,9 @@ public class Robot extends TimedRobot {
     public void autonomousExit() {}
 
     @Override
-    public void teleopInit() {}
+    public void teleopInit() {
+        applyTelemetryProfile(false);
+    }
 
     @Override
     public void teleopPeriodic() {}
@@ -79,6 +170,7 @@ public class Robot extends TimedRobot {
     @Override
     public void testInit() {
         CommandScheduler.getInstance().cancelAll();
+        applyTelemetryProfile(true);
     }
 
     @Override
@@ -86,4 +178,11 @@ public class Robot extends TimedRobot {
 
     @Override
     public void testExit() {}
+
+    /**
+     * Switch to the profile for the mode being entered and the FMS state. Only changes keys whose rules differ
+     */
+    private static void applyTelemetryProfile(boolean testMode) {
+        Logger.setProfile(TelemetryProfile.forMode(testMode, DriverStation.isFMSAttached()));
+    }
 }
@@ -10,6 +10,7 @@ import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import frc.robot.subsystems.ClimberSubsytem;
 import frc.robot.subsystems.ElevSubsytem;
 import frc.robot.subsystems.ShooterSubsytem;
+import frc.robot.utils.BootProfiler;
 
 public class RobotContainer {
 
@@ -32,6 +33,7 @@ public class RobotContainer {
     public final ClimberSubsytem climbSub;
 
     private RobotContainer() {
+        BootProfiler.begin("RobotContainer");
         pdp = new PowerDistribution();
 
         commandDriver1 = new CommandXboxController(0);
@@ -39,8 +41,16 @@ public class RobotContainer {
         commandDriver2 = new CommandXboxController(1);
         hidDriver2 = commandDriver2.getHID();
 
+        // includes loading each subsystem's classes (and vendor libraries) the first time
+        BootProfiler.begin("ElevSubsytem");
         elevSub = new ElevSubsytem();
+        BootProfiler.end();
+        BootProfiler.begin("ShooterSubsytem");
         shooterSub = new ShooterSubsytem();
+        BootProfiler.end();
+        BootProfiler.begin("ClimberSubsytem");
         climbSub = new ClimberSubsytem();
+        BootProfiler.end();
+        BootProfiler.end();
     }
 }
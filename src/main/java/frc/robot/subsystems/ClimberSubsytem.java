@@ -16,92 +16,75 @@ import frc.robot.units.ClimbClampAngle;
 import frc.robot.units.ClimbLeverAngle;
 import frc.robot.units.ClimbState;
 import frc.robot.utils.Alerts;
+import frc.robot.utils.BootProfiler;
+import frc.robot.utils.LogFields;
 import frc.robot.utils.Logger;
-import frc.robot.utils.TalonFXUtils;
-import java.util.Map;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.TalonFXFaults;
+import frc.robot.utils.TalonFXSignals;
 import java.util.Optional;
 
 public class ClimberSubsytem extends SubsystemBase {
 
+    private final LoopProfiler.Phase periodicPhase = LoopProfiler.phase("climb");
     private final TalonFX lever, clamp;
+    private final TalonFXSignals leverSignals, clampSignals;
+    private final LogFields leverFields, clampFields;
     private Optional<ClimbLeverAngle> currentLeverTarget;
     private Optional<ClimbClampAngle> currentClampTarget;
+    // primitive copies of the targets for the log fields, in motor rotations, NaN/null with no target
+    private double leverTargetRots = Double.NaN, clampTargetRots = Double.NaN;
+    private ClimbState leverTargetState = null, clampTargetState = null;
 
     public ClimberSubsytem() {
         lever = new TalonFX(ClimberConstants.Lever.motorID);
         clamp = new TalonFX(ClimberConstants.Clamp.motorID);
-        currentLeverTarget = Optional.empty();
-        currentClampTarget = Optional.empty();
-
+        leverSignals = TalonFXSignals.of(lever);
+        clampSignals = TalonFXSignals.of(clamp);
+        trackLeverTarget(null);
+        trackClampTarget(null);
+        // read straight from the signals Logger.log just filled (or replayed), so logging the fields never allocates
+        leverFields = new LogFields()
+                .addDouble("angleMechRots", () -> leverSignals.getPositionRots() / ClimberConstants.Lever.gearRatio)
+                .addDouble(
+                        "angleMechDeg", () -> leverSignals.getPositionRots() / ClimberConstants.Lever.gearRatio * 360)
+                .addEnum("angleState", () -> ClimbLeverAngle.stateAt(leverSignals.getPositionRots()))
+                .addDouble("targetMechRots", () -> leverTargetRots / ClimberConstants.Lever.gearRatio)
+                .addDouble("targetMechDeg", () -> leverTargetRots / ClimberConstants.Lever.gearRatio * 360)
+                .addEnum("targetState", () -> leverTargetState);
+        clampFields = new LogFields()
+                .addDouble("angleMechRots", () -> clampSignals.getPositionRots() / ClimberConstants.Clamp.gearRatio)
+                .addDouble(
+                        "angleMechDeg", () -> clampSignals.getPositionRots() / ClimberConstants.Clamp.gearRatio * 360)
+                .addEnum("angleState", () -> ClimbClampAngle.stateAt(clampSignals.getPositionRots()))
+                .addDouble("targetMechRots", () -> clampTargetRots / ClimberConstants.Clamp.gearRatio)
+                .addDouble("targetMechDeg", () -> clampTargetRots / ClimberConstants.Clamp.gearRatio * 360)
+                .addEnum("targetState", () -> clampTargetState);
+
+        BootProfiler.begin("configureMotor lever");
         configureMotor(lever, true);
-        configureMotor(lever, false);
+        BootProfiler.end();
+        BootProfiler.begin("configureMotor clamp");
+        configureMotor(clamp, false);
+        BootProfiler.end();
     }
 
     @Override
     public void periodic() {
-        ClimbLeverAngle leverAngle = getLeverAngle();
-        ClimbClampAngle clampAngle = getClampAngle();
-
-        Optional<ClimbState> leverTargetState =
-                currentLeverTarget.map((val) -> val.getAsState()).orElse(Optional.empty());
-        Optional<ClimbState> clampTargetState =
-                currentClampTarget.map((val) -> val.getAsState()).orElse(Optional.empty());
-
-        String leverAngleMechRotsString = Double.toString(leverAngle.getAsLeverRotations());
-        String clampAngleMechRotsString = Double.toString(clampAngle.getAsClampRotations());
-        String leverAngleMechDegString = Double.toString(leverAngle.getAsLeverDegrees());
-        String clampAngleMechDegString = Double.toString(clampAngle.getAsClampDegrees());
-        String leverAngleStateString =
-                leverAngle.getAsState().map((val) -> val.name()).orElse("none");
-        String clampAngleStateString =
-                clampAngle.getAsState().map((val) -> val.name()).orElse("none");
-        String leverTargetMechRotsString = currentLeverTarget
-                .map((val) -> Double.toString(val.getAsLeverRotations()))
-                .orElse("none");
-        String clampTargetMechRotsString = currentClampTarget
-                .map((val) -> Double.toString(val.getAsClampRotations()))
-                .orElse("none");
-        String leverTargetMechDegString = currentLeverTarget
-                .map((val) -> Double.toString(val.getAsLeverDegrees()))
-                .orElse("none");
-        String clampTargetMechDegString = currentClampTarget
-                .map((val) -> Double.toString(val.getAsClampDegrees()))
-                .orElse("none");
-        String leverTargetStateString =
-                leverTargetState.map((val) -> val.name()).orElse("none");
-        String clampTargetStateString =
-                clampTargetState.map((val) -> val.name()).orElse("none");
+        periodicPhase.start();
 
         Logger.log("climb", this);
-        Logger.log(
-                "climb",
-                "lever",
-                lever,
-                Optional.of(Map.ofEntries(
-                        Map.entry("angleMechRots", leverAngleMechRotsString),
-                        Map.entry("angleMechDeg", leverAngleMechDegString),
-                        Map.entry("angleState", leverAngleStateString),
-                        Map.entry("targetMechRots", leverTargetMechRotsString),
-                        Map.entry("targetMechDeg", leverTargetMechDegString),
-                        Map.entry("targetState", leverTargetStateString))));
-        Logger.log(
-                "climb",
-                "clamp",
-                clamp,
-                Optional.of(Map.ofEntries(
-                        Map.entry("angleMechRots", clampAngleMechRotsString),
-                        Map.entry("angleMechDeg", clampAngleMechDegString),
-                        Map.entry("angleState", clampAngleStateString),
-                        Map.entry("targetMechRots", clampTargetMechRotsString),
-                        Map.entry("targetMechDeg", clampTargetMechDegString),
-                        Map.entry("targetState", clampTargetStateString))));
-
-        Alerts.climbLeverDisconnected.set(!lever.isConnected());
-        Alerts.climbClampDisconnected.set(!clamp.isConnected());
-        Alerts.climbLeverOverheating.set(lever.getDeviceTemp().getValue().abs(Units.Celsius) >= 80);
-        Alerts.climbClampOverheating.set(clamp.getDeviceTemp().getValue().abs(Units.Celsius) >= 80);
-        Alerts.climbLeverFaults.set(TalonFXUtils.getAllActiveFaults(lever).hasCriticalFaults());
-        Alerts.climbClampFaults.set(TalonFXUtils.getAllStickyFaults(clamp).hasCriticalFaults());
+        Logger.log("climb", "lever", leverSignals, leverFields);
+        Logger.log("climb", "clamp", clampSignals, clampFields);
+
+        Alerts.climbLeverDisconnected.set(!leverSignals.isConnected());
+        Alerts.climbClampDisconnected.set(!clampSignals.isConnected());
+        Alerts.climbLeverOverheating.set(leverSignals.getTempC() >= 80);
+        Alerts.climbClampOverheating.set(clampSignals.getTempC() >= 80);
+        Alerts.climbLeverFaults.set(TalonFXFaults.hasCriticalFaults(leverSignals.getActiveFaultBits()));
+        Alerts.climbClampFaults.set(TalonFXFaults.hasCriticalFaults(clampSignals.getStickyFaultBits()));
+
+        periodicPhase.stop();
     }
 
     public void setLeverTarget(ClimbLeverAngle target) {
@@ -110,7 +93,7 @@ public class ClimberSubsytem extends SubsystemBase {
             return;
         }
 
-        currentLeverTarget = Optional.of(target);
+        trackLeverTarget(target);
 
         var req = new PositionVoltage(Angle.ofBaseUnits(target.getAsMotorRotations(), Units.Rotations));
         req.Slot = 0;
@@ -123,7 +106,7 @@ public class ClimberSubsytem extends SubsystemBase {
             return;
         }
 
-        currentClampTarget = Optional.of(target);
+        trackClampTarget(target);
 
         var req = new PositionVoltage(Angle.ofBaseUnits(target.getAsMotorRotations(), Units.Rotations));
         req.Slot = 0;
@@ -131,49 +114,49 @@ public class ClimberSubsytem extends SubsystemBase {
     }
 
     public void setLeverDutyCycle(double dutyCycle) {
-        currentLeverTarget = Optional.empty();
+        trackLeverTarget(null);
         lever.set(Math.min(
                 Math.max(dutyCycle, -ClimberConstants.Lever.maxDutyCycle), ClimberConstants.Lever.maxDutyCycle));
     }
 
     public void setClampDutyCycle(double dutyCycle) {
-        currentClampTarget = Optional.empty();
+        trackClampTarget(null);
         clamp.set(Math.min(
                 Math.max(dutyCycle, -ClimberConstants.Clamp.maxDutyCycle), ClimberConstants.Clamp.maxDutyCycle));
     }
 
     public void setLeverVoltage(double volts) {
-        currentLeverTarget = Optional.empty();
+        trackLeverTarget(null);
 
         var req = new VoltageOut(Voltage.ofBaseUnits(volts, Units.Volts));
         lever.setControl(req);
     }
 
     public void setClampVoltage(double volts) {
-        currentClampTarget = Optional.empty();
+        trackClampTarget(null);
 
         var req = new VoltageOut(Voltage.ofBaseUnits(volts, Units.Volts));
         clamp.setControl(req);
     }
 
     public void stopLever() {
-        currentLeverTarget = Optional.empty();
+        trackLeverTarget(null);
 
         lever.set(0);
     }
 
     public void stopClamp() {
-        currentClampTarget = Optional.empty();
+        trackClampTarget(null);
 
         clamp.set(0);
     }
 
     public ClimbLeverAngle getLeverAngle() {
-        return ClimbLeverAngle.fromMotorRotations(lever.getPosition().getValueAsDouble());
+        return ClimbLeverAngle.fromMotorRotations(leverSignals.getPositionRots());
     }
 
     public ClimbClampAngle getClampAngle() {
-        return ClimbClampAngle.fromMotorRotations(clamp.getPosition().getValueAsDouble());
+        return ClimbClampAngle.fromMotorRotations(clampSignals.getPositionRots());
     }
 
     public Optional<Boolean> isLeverAtTarget() {
@@ -200,6 +183,24 @@ public class ClimberSubsytem extends SubsystemBase {
         return Optional.of(angle >= target - tolerance && angle <= target + tolerance);
     }
 
+    /**
+     * null for no target
+     */
+    private void trackLeverTarget(ClimbLeverAngle target) {
+        currentLeverTarget = Optional.ofNullable(target);
+        leverTargetRots = target == null ? Double.NaN : target.getAsMotorRotations();
+        leverTargetState = target == null ? null : ClimbLeverAngle.stateAt(leverTargetRots);
+    }
+
+    /**
+     * null for no target
+     */
+    private void trackClampTarget(ClimbClampAngle target) {
+        currentClampTarget = Optional.ofNullable(target);
+        clampTargetRots = target == null ? Double.NaN : target.getAsMotorRotations();
+        clampTargetState = target == null ? null : ClimbClampAngle.stateAt(clampTargetRots);
+    }
+
     private void configureMotor(TalonFX motor, boolean isLever) {
         if (motor == null) {
             Logger.reportWarning("Cannot configure null climber motor", true);
@@ -15,51 +15,61 @@ import frc.robot.constants.ElevConstants;
 import frc.robot.units.ElevLevel;
 import frc.robot.units.ElevPosition;
 import frc.robot.utils.Alerts;
+import frc.robot.utils.BootProfiler;
+import frc.robot.utils.LogFields;
+import frc.robot.utils.LogKey;
+import frc.robot.utils.LogRate;
 import frc.robot.utils.Logger;
-import frc.robot.utils.TalonFXUtils;
-import java.util.Map;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.TalonFXFaults;
+import frc.robot.utils.TalonFXSignals;
 import java.util.Optional;
 
 public class ElevSubsytem extends SubsystemBase {
 
+    private final LoopProfiler.Phase periodicPhase = LoopProfiler.phase("elev");
     private final TalonFX motor;
+    private final TalonFXSignals motorSignals;
+    private final LogFields motorFields;
+    private final LogKey.DoubleKey currentOutKey;
     private Optional<ElevPosition> currentTarget;
+    // primitive copies of currentTarget for the log fields, NaN/null with no target
+    private double targetRots = Double.NaN;
+    private ElevLevel targetLevel = null;
 
     public ElevSubsytem() {
         motor = new TalonFX(ElevConstants.motorID);
-        currentTarget = Optional.empty();
-
+        motorSignals = TalonFXSignals.of(motor);
+        trackTarget(null);
+        // the telemetry struct already puts currentOut on the dashboard, this copy is for its stats
+        currentOutKey = Logger.doubleKey("elev/motor", "currentOut");
+        currentOutKey.setDashboard(false);
+        currentOutKey.attachStats(250, LogRate.HZ_1); // last 5 s
+        // read straight from the signals Logger.log just filled (or replayed), so logging the fields never allocates
+        motorFields = new LogFields()
+                .addDouble("positionInches", () -> motorSignals.getPositionRots() / ElevConstants.rotsPerInch)
+                .addEnum("positionLevel", () -> ElevPosition.levelAt(motorSignals.getPositionRots()))
+                .addDouble("targetInches", () -> targetRots / ElevConstants.rotsPerInch)
+                .addEnum("targetLevel", () -> targetLevel);
+
+        BootProfiler.begin("configureMotor");
         configureMotor();
+        BootProfiler.end();
     }
 
     @Override
     public void periodic() {
-        ElevPosition position = getPosition();
+        periodicPhase.start();
 
-        Optional<ElevLevel> targetLvl =
-                currentTarget.map((val) -> val.getAsElevLevel()).orElse(Optional.empty());
+        Logger.log("elev", this);
+        Logger.log("elev", "motor", motorSignals, motorFields);
+        currentOutKey.set(motorSignals.getCurrentOut());
 
-        String positionInchesString = Double.toString(position.getAsInches());
-        String positionLvlString =
-                position.getAsElevLevel().map((val) -> val.name()).orElse("none");
-        String targetInchesString =
-                currentTarget.map((val) -> Double.toString(val.getAsInches())).orElse("none");
-        String targetLvlString = targetLvl.map((val) -> val.name()).orElse("none");
+        Alerts.elevMotorDisconnected.set(!motorSignals.isConnected());
+        Alerts.elevMotorOverheating.set(motorSignals.getTempC() >= 80);
+        Alerts.elevMotorFaults.set(TalonFXFaults.hasCriticalFaults(motorSignals.getActiveFaultBits()));
 
-        Logger.log("elev", this);
-        Logger.log(
-                "elev",
-                "motor",
-                motor,
-                Optional.of(Map.ofEntries(
-                        Map.entry("positionInches", positionInchesString),
-                        Map.entry("positionLevel", positionLvlString),
-                        Map.entry("targetInches", targetInchesString),
-                        Map.entry("targetLevel", targetLvlString))));
-
-        Alerts.elevMotorDisconnected.set(!motor.isConnected());
-        Alerts.elevMotorOverheating.set(motor.getDeviceTemp().getValue().abs(Units.Celsius) >= 80);
-        Alerts.elevMotorFaults.set(TalonFXUtils.getAllActiveFaults(motor).hasCriticalFaults());
+        periodicPhase.stop();
     }
 
     public void setTargetPos(ElevPosition target) {
@@ -68,7 +78,7 @@ public class ElevSubsytem extends SubsystemBase {
             return;
         }
 
-        currentTarget = Optional.of(target);
+        trackTarget(target);
 
         var req = new PositionVoltage(Angle.ofBaseUnits(target.getAsRotations(), Units.Rotations));
         req.Slot = 0;
@@ -76,25 +86,25 @@ public class ElevSubsytem extends SubsystemBase {
     }
 
     public void setDutyCycle(double dutyCycle) {
-        currentTarget = Optional.empty();
+        trackTarget(null);
         motor.set(Math.min(Math.max(dutyCycle, -ElevConstants.maxDutyCycle), ElevConstants.maxDutyCycle));
     }
 
     public void setVoltage(double volts) {
-        currentTarget = Optional.empty();
+        trackTarget(null);
 
         var req = new VoltageOut(Voltage.ofBaseUnits(volts, Units.Volts));
         motor.setControl(req);
     }
 
     public void stop() {
-        currentTarget = Optional.empty();
+        trackTarget(null);
 
         motor.set(0);
     }
 
     public ElevPosition getPosition() {
-        return ElevPosition.fromRotations(motor.getPosition().getValueAsDouble());
+        return ElevPosition.fromRotations(motorSignals.getPositionRots());
     }
 
     public Optional<Boolean> isAtTarget() {
@@ -109,6 +119,15 @@ public class ElevSubsytem extends SubsystemBase {
         return Optional.of(position >= target - tolerance && position <= target + tolerance);
     }
 
+    /**
+     * null for no target
+     */
+    private void trackTarget(ElevPosition target) {
+        currentTarget = Optional.ofNullable(target);
+        targetRots = target == null ? Double.NaN : target.getAsRotations();
+        targetLevel = target == null ? null : ElevPosition.levelAt(targetRots);
+    }
+
     private void configureMotor() {
         TalonFXConfiguration config = new TalonFXConfiguration();
 
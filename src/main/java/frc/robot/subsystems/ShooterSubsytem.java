@@ -9,36 +9,69 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.constants.ShooterConstants;
 import frc.robot.utils.Alerts;
+import frc.robot.utils.BootProfiler;
+import frc.robot.utils.LogKey;
+import frc.robot.utils.LogRate;
 import frc.robot.utils.Logger;
-import frc.robot.utils.SparkMaxUtils;
-import java.util.Optional;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.MotorTelemetry;
 
 public class ShooterSubsytem extends SubsystemBase {
 
+    private final LoopProfiler.Phase periodicPhase = LoopProfiler.phase("shooter");
     private final SparkMax lShooter, rShooter;
+    // refilled by Logger.log every loop (or from the log during replay), read these instead of the controllers
+    private final MotorTelemetry lTelemetry, rTelemetry;
+    // full rate in the DataLog, on the dashboard only as 10 Hz windows whose max keeps the spikes plain decimation
+    // would drop. Spin-up and recovery after a shot also show up in the spread of the velocity stats
+    private final LogKey.DoubleKey lVelocityKey, rVelocityKey, lCurrentKey, rCurrentKey;
 
     public ShooterSubsytem() {
         lShooter = new SparkMax(ShooterConstants.LeftShooter.motorID, MotorType.kBrushless);
         rShooter = new SparkMax(ShooterConstants.RightShooter.motorID, MotorType.kBrushless);
+        lTelemetry = Logger.getTelemetry("shooter", "lShooter");
+        rTelemetry = Logger.getTelemetry("shooter", "rShooter");
+        lVelocityKey = Logger.doubleKey("shooter/lShooter", "velocityRPM");
+        rVelocityKey = Logger.doubleKey("shooter/rShooter", "velocityRPM");
+        lCurrentKey = Logger.doubleKey("shooter/lShooter", "currentOut");
+        rCurrentKey = Logger.doubleKey("shooter/rShooter", "currentOut");
+        lVelocityKey.attachStats(250, LogRate.HZ_1); // last 5 s
+        rVelocityKey.attachStats(250, LogRate.HZ_1);
+        lVelocityKey.attachDashboardStream(LogRate.HZ_10);
+        rVelocityKey.attachDashboardStream(LogRate.HZ_10);
+        lCurrentKey.attachDashboardStream(LogRate.HZ_10);
+        rCurrentKey.attachDashboardStream(LogRate.HZ_10);
 
+        BootProfiler.begin("configureMotor left");
         configureMotor(lShooter, true);
+        BootProfiler.end();
+        BootProfiler.begin("configureMotor right");
         configureMotor(rShooter, false);
+        BootProfiler.end();
     }
 
     @Override
     public void periodic() {
+        periodicPhase.start();
+
         Logger.log("shooter", this);
-        Logger.log("shooter", "lShooter", lShooter, Optional.empty());
-        Logger.log("shooter", "rShooter", rShooter, Optional.empty());
-
-        Alerts.shooterLMotorDisconnected.set(!SparkMaxUtils.isConnected(lShooter));
-        Alerts.shooterRMotorDisconnected.set(!SparkMaxUtils.isConnected(rShooter));
-        Alerts.shooterLMotorOverheating.set(lShooter.getMotorTemperature() >= 80);
-        Alerts.shooterRMotorOverheating.set(rShooter.getMotorTemperature() >= 80);
-        Alerts.shooterLMotorFaults.set(SparkMaxUtils.hasCriticalFaults(lShooter.getFaults()));
-        Alerts.shooterRMotorFaults.set(SparkMaxUtils.hasCriticalFaults(rShooter.getFaults()));
-        Alerts.shooterLMotorWarnings.set(SparkMaxUtils.hasCriticalWarnings(lShooter.getWarnings()));
-        Alerts.shooterRMotorWarnings.set(SparkMaxUtils.hasCriticalWarnings(rShooter.getWarnings()));
+        Logger.log("shooter", "lShooter", lShooter);
+        Logger.log("shooter", "rShooter", rShooter);
+        lVelocityKey.set(lTelemetry.velocityRPM);
+        rVelocityKey.set(rTelemetry.velocityRPM);
+        lCurrentKey.set(lTelemetry.currentOut);
+        rCurrentKey.set(rTelemetry.currentOut);
+
+        Alerts.shooterLMotorDisconnected.set(!lTelemetry.connected);
+        Alerts.shooterRMotorDisconnected.set(!rTelemetry.connected);
+        Alerts.shooterLMotorOverheating.set(lTelemetry.tempC >= 80);
+        Alerts.shooterRMotorOverheating.set(rTelemetry.tempC >= 80);
+        Alerts.shooterLMotorFaults.set(lTelemetry.criticalFaultsActive);
+        Alerts.shooterRMotorFaults.set(rTelemetry.criticalFaultsActive);
+        Alerts.shooterLMotorWarnings.set(lTelemetry.criticalWarningsActive);
+        Alerts.shooterRMotorWarnings.set(rTelemetry.criticalWarningsActive);
+
+        periodicPhase.stop();
     }
 
     public void setDutyCycle(double dutyCycle) {
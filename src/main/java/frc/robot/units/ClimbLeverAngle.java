@@ -47,17 +47,24 @@ public class ClimbLeverAngle extends SubsytemUnit {
     }
 
     public Optional<ClimbState> getAsState() {
-        final double rots = getAsMotorRotations();
+        return Optional.ofNullable(stateAt(getAsMotorRotations()));
+    }
+
+    /**
+     * State within tolerance of rots (motor rotations), or null. Takes and returns no wrapper objects, for per-loop
+     * logging
+     */
+    public static ClimbState stateAt(double rots) {
         final double tolerance = ClimberConstants.Lever.targetTolerance.getAsMotorRotations();
         final double open = ClimberConstants.Lever.open.getAsMotorRotations();
         final double closed = ClimberConstants.Lever.closed.getAsMotorRotations();
 
         if (rots >= open - tolerance && rots <= open + tolerance) {
-            return Optional.of(ClimbState.OPEN);
+            return ClimbState.OPEN;
         } else if (rots >= closed - tolerance && rots <= closed + tolerance) {
-            return Optional.of(ClimbState.CLOSED);
+            return ClimbState.CLOSED;
         } else {
-            return Optional.empty();
+            return null;
         }
     }
 
@@ -48,7 +48,13 @@ public class ElevPosition extends SubsytemUnit {
     }
 
     public Optional<ElevLevel> getAsElevLevel() {
-        final double rots = getAsRotations();
+        return Optional.ofNullable(levelAt(getAsRotations()));
+    }
+
+    /**
+     * Level within tolerance of rots, or null. Takes and returns no wrapper objects, for per-loop logging
+     */
+    public static ElevLevel levelAt(double rots) {
         final double tolerance = ElevConstants.targetTolerance.getAsRotations();
         final double home = ElevConstants.home.getAsRotations();
         final double l1 = ElevConstants.l1.getAsRotations();
@@ -57,17 +63,17 @@ public class ElevPosition extends SubsytemUnit {
         final double l4 = ElevConstants.l4.getAsRotations();
 
         if (rots >= home - tolerance && rots <= home + tolerance) {
-            return Optional.of(ElevLevel.HOME);
+            return ElevLevel.HOME;
         } else if (rots >= l1 - tolerance && rots <= l1 + tolerance) {
-            return Optional.of(ElevLevel.L1);
+            return ElevLevel.L1;
         } else if (rots >= l2 - tolerance && rots <= l2 + tolerance) {
-            return Optional.of(ElevLevel.L2);
+            return ElevLevel.L2;
         } else if (rots >= l3 - tolerance && rots <= l3 + tolerance) {
-            return Optional.of(ElevLevel.L3);
+            return ElevLevel.L3;
         } else if (rots >= l4 - tolerance && rots <= l4 + tolerance) {
-            return Optional.of(ElevLevel.L4);
+            return ElevLevel.L4;
         } else {
-            return Optional.empty();
+            return null;
         }
     }
 
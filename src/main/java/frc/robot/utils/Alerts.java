@@ -13,6 +13,8 @@ public class Alerts {
             fmsConnected,
             lowBattery,
             criticalBattery,
+            loopOverrun,
+            gcPauses,
             elevMotorDisconnected,
             elevMotorOverheating,
             elevMotorFaults,
@@ -36,6 +38,9 @@ public class Alerts {
             climbLeverFaults,
             climbClampFaults;
 
+    // every kError alert, watched by FlightRecorder. Add new error alerts here too
+    static final Alert[] errors;
+
     static {
         driver1Missing = new Alert("Driver 1 controller is not plugged in to port 0", AlertType.kWarning);
         driver1Missing.set(false);
@@ -52,6 +57,12 @@ public class Alerts {
         criticalBattery = new Alert("Very low battery", AlertType.kError);
         criticalBattery.set(false);
 
+        loopOverrun = new Alert("Loop overruns in the last second", AlertType.kWarning);
+        loopOverrun.set(false);
+
+        gcPauses = new Alert("High GC pause time in the last minute", AlertType.kWarning);
+        gcPauses.set(false);
+
         elevMotorDisconnected = new Alert(
                 String.format("Missing connection to elevator motor (CAN %d)", ElevConstants.motorID),
                 AlertType.kError);
@@ -176,6 +187,20 @@ public class Alerts {
                         ClimberConstants.Clamp.motorID),
                 AlertType.kWarning);
         climbClampFaults.set(false);
+
+        errors = new Alert[] {
+            criticalBattery,
+            elevMotorDisconnected,
+            elevMotorConfigFail,
+            shooterLMotorConfigFail,
+            shooterRMotorConfigFail,
+            shooterLMotorDisconnected,
+            shooterRMotorDisconnected,
+            climbLeverConfigFail,
+            climbClampConfigFail,
+            climbLeverDisconnected,
+            climbClampDisconnected
+        };
     }
 
     private Alerts() {}
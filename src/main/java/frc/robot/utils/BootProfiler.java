@@ -0,0 +1,108 @@
+package frc.robot.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Startup timeline from JVM start to the end of the first robotPeriodic. Wrap each boot step (Logger init,
+ * RobotContainer, subsystem constructors, motor configs...) in begin/end, steps can nest. finish() prints the timeline
+ * and logs it under boot/, so a slow device config or class init shows up in every log.
+ *
+ * Main thread only. Doesn't touch Logger until finish(), so it can time Logger's own static init.
+ */
+public class BootProfiler {
+
+    private static final int MAX_STEPS = 64;
+    private static final int MAX_DEPTH = 16;
+    private static final double NANOS_PER_MS = 1e6;
+
+    // System.nanoTime at JVM start, the JVM only reports its uptime in ms
+    private static final long jvmStartNanos =
+            System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000;
+
+    private static final String[] names = new String[MAX_STEPS];
+    private static final long[] startNanos = new long[MAX_STEPS];
+    private static final long[] endNanos = new long[MAX_STEPS];
+    private static final int[] depths = new int[MAX_STEPS];
+    private static final int[] open = new int[MAX_DEPTH];
+    private static int stepCount = 0;
+    private static int openCount = 0;
+    private static int droppedSteps = 0;
+    private static boolean finished = false;
+
+    // prevent instantiating objects
+    private BootProfiler() {}
+
+    /**
+     * Start a step, nested in the step currently open. No-op once finished
+     */
+    public static void begin(String name) {
+        if (finished) return;
+        if (stepCount == MAX_STEPS || openCount == MAX_DEPTH) {
+            droppedSteps++;
+            // still push so the matching end() closes this one and not its parent
+            if (openCount < MAX_DEPTH) open[openCount++] = -1;
+            return;
+        }
+
+        names[stepCount] = name;
+        depths[stepCount] = openCount;
+        startNanos[stepCount] = System.nanoTime();
+        open[openCount++] = stepCount;
+        stepCount++;
+    }
+
+    /**
+     * End the most recently begun step
+     */
+    public static void end() {
+        if (finished || openCount == 0) return;
+
+        int step = open[--openCount];
+        if (step >= 0) endNanos[step] = System.nanoTime();
+    }
+
+    /**
+     * A zero length step, e.g. entering main
+     */
+    public static void mark(String name) {
+        begin(name);
+        end();
+    }
+
+    public static boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Close any open steps, print the timeline and log it. Call at the end of the first robotPeriodic, later calls do
+     * nothing
+     */
+    public static void finish() {
+        if (finished) return;
+
+        long now = System.nanoTime();
+        while (openCount > 0) {
+            end();
+        }
+        finished = true;
+
+        String[] timeline = new String[stepCount];
+        StringBuilder printed = new StringBuilder("Boot timeline (ms since JVM start, ms taken):");
+        for (int i = 0; i < stepCount; i++) {
+            timeline[i] = String.format(
+                    "%8.1f %8.1f  %s%s",
+                    (startNanos[i] - jvmStartNanos) / NANOS_PER_MS,
+                    (endNanos[i] - startNanos[i]) / NANOS_PER_MS,
+                    "  ".repeat(depths[i]),
+                    names[i]);
+            printed.append('\n').append(timeline[i]);
+        }
+        double totalMs = (now - jvmStartNanos) / NANOS_PER_MS;
+        printed.append(String.format("\n%8.1f           ready", totalMs));
+        if (droppedSteps > 0) printed.append("\n(").append(droppedSteps).append(" steps not recorded)");
+
+        Logger.println(printed.toString());
+        Logger.stringArrayKey("boot", "timeline").set(timeline);
+        Logger.doubleKey("boot", "totalMs").set(totalMs);
+    }
+}
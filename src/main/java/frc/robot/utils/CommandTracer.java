@@ -0,0 +1,303 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Records every command run (initialize to finish or interrupt) with the time its execute() calls cost, through the
+ * CommandScheduler's hooks, into a fixed ring of the last RUN_CAPACITY runs. dump() writes them as Chrome trace-event
+ * JSON (chrome://tracing, ui.perfetto.dev), one lane per command, so an auto or teleop cycle can be seen in one view.
+ *
+ * The scheduler only calls the execute hook after execute() returns, so a command's execute cost is the time since
+ * the previous hook (or since the button loop finished polling, for the first command of a loop). That also counts the
+ * previous command's isFinished(), which is normally negligible.
+ *
+ * Main thread only, like the scheduler, apart from the writer.
+ */
+public class CommandTracer {
+
+    private static final int RUN_CAPACITY = 1024; // power of 2, used as a mask
+    // commands built on the fly (instead of once at binding time) would otherwise grow the map forever
+    private static final int MAX_COMMANDS = 256;
+
+    private static final Map<Command, CommandState> states = new HashMap<>();
+    private static int nextLane = 1;
+    private static long lastHookNanos = 0;
+    private static boolean started = false;
+    private static final long epochNanos = System.nanoTime();
+
+    // finished runs, oldest overwritten first
+    private static final CommandState[] runCommands = new CommandState[RUN_CAPACITY];
+    private static final long[] runStartNanos = new long[RUN_CAPACITY];
+    private static final long[] runEndNanos = new long[RUN_CAPACITY];
+    private static final long[] runExecuteNanos = new long[RUN_CAPACITY];
+    private static final long[] runMaxExecuteNanos = new long[RUN_CAPACITY];
+    private static final int[] runExecuteCounts = new int[RUN_CAPACITY];
+    private static final boolean[] runInterrupted = new boolean[RUN_CAPACITY];
+    private static long runCount = 0;
+
+    // written by the main thread while writing is false, read by the writer while it's true. Room for every run in the
+    // ring plus every traced command still running
+    private static final String[] snapshotLaneNames = new String[MAX_COMMANDS];
+    private static final int[] snapshotLanes = new int[MAX_COMMANDS];
+    private static final String[] snapshotNames = new String[RUN_CAPACITY + MAX_COMMANDS];
+    private static final int[] snapshotRunLanes = new int[RUN_CAPACITY + MAX_COMMANDS];
+    private static final long[] snapshotStartNanos = new long[RUN_CAPACITY + MAX_COMMANDS];
+    private static final long[] snapshotEndNanos = new long[RUN_CAPACITY + MAX_COMMANDS];
+    private static final long[] snapshotExecuteNanos = new long[RUN_CAPACITY + MAX_COMMANDS];
+    private static final long[] snapshotMaxExecuteNanos = new long[RUN_CAPACITY + MAX_COMMANDS];
+    private static final int[] snapshotExecuteCounts = new int[RUN_CAPACITY + MAX_COMMANDS];
+    private static final String[] snapshotResults = new String[RUN_CAPACITY + MAX_COMMANDS];
+    private static int snapshotLaneCount = 0, snapshotSize = 0, snapshotRunCount = 0;
+    private static volatile boolean writing = false;
+
+    private static ExecutorService writer = null;
+
+    // prevent instantiating objects
+    private CommandTracer() {}
+
+    private static final class CommandState {
+        private final String name;
+        private final int lane;
+        private boolean running = false;
+        private long startNanos = 0;
+        private long executeNanos = 0;
+        private long maxExecuteNanos = 0;
+        private int executeCount = 0;
+
+        private CommandState(String name, int lane) {
+            this.name = name;
+            this.lane = lane;
+        }
+    }
+
+    /**
+     * Install the scheduler hooks. Call once from the Robot constructor, after RobotContainer has bound its triggers
+     */
+    public static void start() {
+        if (started) return;
+
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.onCommandInitialize(CommandTracer::onInitialize);
+        scheduler.onCommandExecute(CommandTracer::onExecute);
+        scheduler.onCommandFinish((command) -> onEnd(command, false));
+        scheduler.onCommandInterrupt((command) -> onEnd(command, true));
+        // polled after every trigger bound so far, right before the scheduler starts executing commands
+        scheduler.getDefaultButtonLoop().bind(() -> lastHookNanos = System.nanoTime());
+
+        writer = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "CommandTracer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        started = true;
+    }
+
+    private static void onInitialize(Command command) {
+        long now = System.nanoTime();
+        CommandState state = states.get(command);
+        if (state == null) {
+            if (states.size() >= MAX_COMMANDS) {
+                Logger.reportWarning("Tracing more than " + MAX_COMMANDS + " commands, " + command.getName()
+                        + " is not traced", false);
+                return;
+            }
+            state = new CommandState(command.getName(), nextLane++);
+            states.put(command, state);
+        }
+
+        state.running = true;
+        state.startNanos = now;
+        state.executeNanos = 0;
+        state.maxExecuteNanos = 0;
+        state.executeCount = 0;
+        lastHookNanos = now;
+    }
+
+    private static void onExecute(Command command) {
+        long now = System.nanoTime();
+        CommandState state = states.get(command);
+        if (state != null && state.running) {
+            long elapsed = now - lastHookNanos;
+            state.executeNanos += elapsed;
+            if (elapsed > state.maxExecuteNanos) state.maxExecuteNanos = elapsed;
+            state.executeCount++;
+        }
+        lastHookNanos = now;
+    }
+
+    private static void onEnd(Command command, boolean interrupted) {
+        long now = System.nanoTime();
+        CommandState state = states.get(command);
+        lastHookNanos = now;
+        if (state == null || !state.running) return;
+
+        state.running = false;
+        int slot = (int) (runCount & (RUN_CAPACITY - 1));
+        runCommands[slot] = state;
+        runStartNanos[slot] = state.startNanos;
+        runEndNanos[slot] = now;
+        runExecuteNanos[slot] = state.executeNanos;
+        runMaxExecuteNanos[slot] = state.maxExecuteNanos;
+        runExecuteCounts[slot] = state.executeCount;
+        runInterrupted[slot] = interrupted;
+        runCount++;
+    }
+
+    /**
+     * Copy the recorded runs, plus the commands still running, and write them to the log directory as Chrome trace JSON
+     * on a background thread. Call from disabledInit
+     */
+    public static void dump() {
+        if (!started || (runCount == 0 && states.isEmpty())) return;
+        if (writing) {
+            Logger.reportWarning("Command tracer still writing the last dump, skipped", false);
+            return;
+        }
+
+        int lanes = 0;
+        for (CommandState state : states.values()) {
+            snapshotLaneNames[lanes] = state.name;
+            snapshotLanes[lanes] = state.lane;
+            lanes++;
+        }
+        snapshotLaneCount = lanes;
+
+        int size = 0;
+        long oldest = Math.max(0, runCount - RUN_CAPACITY);
+        for (long i = oldest; i < runCount; i++) {
+            int slot = (int) (i & (RUN_CAPACITY - 1));
+            CommandState state = runCommands[slot];
+            snapshotRun(
+                    size++,
+                    state,
+                    runStartNanos[slot],
+                    runEndNanos[slot],
+                    runExecuteNanos[slot],
+                    runMaxExecuteNanos[slot],
+                    runExecuteCounts[slot],
+                    runInterrupted[slot] ? "interrupted" : "finished");
+        }
+
+        long now = System.nanoTime();
+        for (CommandState state : states.values()) {
+            if (!state.running) continue;
+            snapshotRun(
+                    size++,
+                    state,
+                    state.startNanos,
+                    now,
+                    state.executeNanos,
+                    state.maxExecuteNanos,
+                    state.executeCount,
+                    "running");
+        }
+        snapshotSize = size;
+        snapshotRunCount = (int) Math.min(runCount, RUN_CAPACITY);
+
+        writing = true;
+        writer.execute(CommandTracer::write);
+    }
+
+    private static void snapshotRun(
+            int index,
+            CommandState state,
+            long startNanos,
+            long endNanos,
+            long executeNanos,
+            long maxExecuteNanos,
+            int executeCount,
+            String result) {
+        snapshotNames[index] = state.name;
+        snapshotRunLanes[index] = state.lane;
+        snapshotStartNanos[index] = startNanos;
+        snapshotEndNanos[index] = endNanos;
+        snapshotExecuteNanos[index] = executeNanos;
+        snapshotMaxExecuteNanos[index] = maxExecuteNanos;
+        snapshotExecuteCounts[index] = executeCount;
+        snapshotResults[index] = result;
+    }
+
+    /**
+     * Writer thread only
+     */
+    private static void write() {
+        Path file = Paths.get(DataLogManager.getLogDir(), "commands_" + System.currentTimeMillis() + ".json");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+            StringBuilder line = new StringBuilder(256);
+            boolean first = true;
+            // name the lanes
+            for (int i = 0; i < snapshotLaneCount; i++) {
+                line.setLength(0);
+                if (!first) line.append(',');
+                first = false;
+                line.append("\n{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":")
+                        .append(snapshotLanes[i])
+                        .append(",\"args\":{\"name\":\"");
+                appendEscaped(line, snapshotLaneNames[i]);
+                line.append("\"}}");
+                out.append(line);
+            }
+
+            // trace event times are in microseconds
+            for (int i = 0; i < snapshotSize; i++) {
+                line.setLength(0);
+                if (!first) line.append(',');
+                first = false;
+                line.append("\n{\"ph\":\"X\",\"cat\":\"command\",\"name\":\"");
+                appendEscaped(line, snapshotNames[i]);
+                line.append("\",\"pid\":1,\"tid\":")
+                        .append(snapshotRunLanes[i])
+                        .append(",\"ts\":")
+                        .append((snapshotStartNanos[i] - epochNanos) / 1000)
+                        .append(",\"dur\":")
+                        .append((snapshotEndNanos[i] - snapshotStartNanos[i]) / 1000)
+                        .append(",\"args\":{\"result\":\"")
+                        .append(snapshotResults[i])
+                        .append("\",\"executes\":")
+                        .append(snapshotExecuteCounts[i])
+                        .append(",\"executeMs\":")
+                        .append(snapshotExecuteNanos[i] / 1e6)
+                        .append(",\"maxExecuteMs\":")
+                        .append(snapshotMaxExecuteNanos[i] / 1e6)
+                        .append("}}");
+                out.append(line);
+            }
+
+            out.write("\n]}\n");
+            Logger.println("Wrote " + snapshotRunCount + " command runs to " + file);
+        } catch (IOException e) {
+            Logger.reportWarning(e, false);
+        } finally {
+            writing = false;
+        }
+    }
+
+    private static void appendEscaped(StringBuilder builder, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+}
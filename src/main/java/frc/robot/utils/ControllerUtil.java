@@ -28,12 +28,12 @@ public class ControllerUtil {
 
     static {
         rumbles = new ArrayList<List<Rumble>>(6);
-        rumbles.set(0, new ArrayList<Rumble>());
-        rumbles.set(1, new ArrayList<Rumble>());
-        rumbles.set(2, new ArrayList<Rumble>());
-        rumbles.set(3, new ArrayList<Rumble>());
-        rumbles.set(4, new ArrayList<Rumble>());
-        rumbles.set(5, new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
+        rumbles.add(new ArrayList<Rumble>());
     }
 
     // prevent instantiating objects
@@ -0,0 +1,58 @@
+package frc.robot.utils;
+
+/**
+ * Downsampled dashboard view of a fast signal, e.g. a shooter's velocity or current: the min, max and last value of
+ * every publish period, under subsystem/keyWindow/. Plain decimation would drop a one-loop current spike, the window
+ * max still shows it, at a fraction of the NT traffic of publishing every loop.
+ *
+ * The window keys only go to NT, never the DataLog: the full rate value is logged elsewhere, by the motor's telemetry
+ * struct or the key the stream is attached to with LogKey.DoubleKey.attachDashboardStream, which takes that key off
+ * the dashboard. Not thread safe, add from one thread.
+ */
+public class DashboardStream {
+
+    private final int publishPeriod;
+    private int untilPublish;
+
+    private double windowMin = Double.NaN, windowMax = Double.NaN, last = Double.NaN;
+
+    private final LogKey.DoubleKey minKey, maxKey, lastKey;
+
+    public DashboardStream(String subsystem, String key, LogRate publishRate) {
+        if (publishRate == null) {
+            Logger.reportWarning("Cannot publish a dashboard stream at a null LogRate, using HZ_10", true);
+            publishRate = LogRate.HZ_10;
+        }
+
+        publishPeriod = publishRate.periodLoops;
+        untilPublish = publishPeriod;
+
+        String root = subsystem + "/" + key + "Window";
+        minKey = Logger.dashboardDoubleKey(root, "min");
+        maxKey = Logger.dashboardDoubleKey(root, "max");
+        lastKey = Logger.dashboardDoubleKey(root, "last");
+    }
+
+    /**
+     * Add a sample, NaN is left out of the min and max. Publishes and starts a new window once every publish period
+     * worth of calls
+     */
+    public void add(double val) {
+        last = val;
+        if (!Double.isNaN(val)) {
+            // NaN compares false, so the first sample of a window always takes both
+            if (!(val >= windowMin)) windowMin = val;
+            if (!(val <= windowMax)) windowMax = val;
+        }
+
+        untilPublish--;
+        if (untilPublish > 0) return;
+
+        untilPublish = publishPeriod;
+        minKey.set(windowMin);
+        maxKey.set(windowMax);
+        lastKey.set(last);
+        windowMin = Double.NaN;
+        windowMax = Double.NaN;
+    }
+}
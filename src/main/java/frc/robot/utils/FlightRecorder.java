@@ -0,0 +1,256 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the last window of every loop's battery voltage, loop time and each logged motor's position, currents and
+ * output voltage in fixed primitive rings, and only writes them out when something goes wrong: an Alerts error is
+ * raised, a motor gets a critical fault, or the battery goes critical. Recording continues for POST_TRIGGER_SECONDS
+ * so the dump shows the aftermath too, then the window is copied and written as CSV to the log directory on a
+ * background thread.
+ *
+ * Motors are picked up from Logger as they're first logged. While recording, their telemetry structs go to the DataLog
+ * and dashboard at MOTOR_LOG_RATE instead of every loop: the recorder keeps every loop of the signals that matter when
+ * something breaks, so the full log doesn't have to. Call periodic() once per loop, after the subsystems have logged.
+ * Main thread only, apart from the writer.
+ */
+public class FlightRecorder {
+
+    public static final double DEFAULT_WINDOW_SECONDS = 30;
+    public static final LogRate MOTOR_LOG_RATE = LogRate.HZ_10;
+    private static final double POST_TRIGGER_SECONDS = 2;
+    private static final String[] MOTOR_COLUMNS = {"positionRots", "currentOut", "currentIn", "voltageOut"};
+
+    private static boolean started = false;
+    private static int capacity = 0;
+    private static int postTriggerLoops = 0;
+
+    // ring, slot = sample % capacity
+    private static long[] timestamps = new long[0];
+    private static double[] loopMs = new double[0], batteryVoltage = new double[0];
+    // MOTOR_COLUMNS.length columns per motor, in Logger's motor order
+    private static double[][] motorColumns = new double[0][];
+    private static long sampleCount = 0;
+
+    // last loop's trigger state, for rising edges
+    private static boolean[] errorsActive = new boolean[0];
+    private static boolean[] motorsCritical = new boolean[0];
+
+    // loops left until the pending dump is taken, -1 when nothing is pending
+    private static int dumpCountdown = -1;
+    private static String dumpReason = null;
+
+    // written by the main thread while writing is false, read by the writer while it's true
+    private static long[] snapshotTimestamps = new long[0];
+    private static double[] snapshotLoopMs = new double[0], snapshotBattery = new double[0];
+    private static double[][] snapshotMotorColumns = new double[0][];
+    private static String[] snapshotMotorRoots = new String[0];
+    private static int snapshotSize = 0;
+    private static String snapshotReason = null;
+    private static volatile boolean writing = false;
+
+    private static ExecutorService writer = null;
+
+    // prevent instantiating objects
+    private FlightRecorder() {}
+
+    /**
+     * Allocate the rings, windowSeconds of loops at periodSeconds each. Call once from the Robot constructor
+     */
+    public static void start(double windowSeconds, double periodSeconds) {
+        if (started) return;
+
+        capacity = Math.max(1, (int) Math.ceil(windowSeconds / periodSeconds));
+        postTriggerLoops = (int) Math.ceil(POST_TRIGGER_SECONDS / periodSeconds);
+        timestamps = new long[capacity];
+        loopMs = new double[capacity];
+        batteryVoltage = new double[capacity];
+        snapshotTimestamps = new long[capacity];
+        snapshotLoopMs = new double[capacity];
+        snapshotBattery = new double[capacity];
+        errorsActive = new boolean[Alerts.errors.length];
+
+        writer = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "FlightRecorder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        started = true;
+    }
+
+    /**
+     * Record this loop and check the triggers. Call at the end of robotPeriodic, before LoopProfiler.endLoop, so the
+     * loop time recorded is the previous loop's
+     */
+    public static void periodic(double batteryVolts) {
+        if (!started) return;
+
+        int motorCount = Logger.getMotorCount();
+        if (motorCount * MOTOR_COLUMNS.length != motorColumns.length) addMotors(motorCount);
+
+        int slot = (int) (sampleCount % capacity);
+        timestamps[slot] = RobotController.getFPGATime();
+        loopMs[slot] = LoopProfiler.getLastLoopNanos() / 1e6;
+        batteryVoltage[slot] = batteryVolts;
+        for (int i = 0; i < motorCount; i++) {
+            MotorTelemetry telemetry = Logger.getMotorTelemetry(i);
+            int column = i * MOTOR_COLUMNS.length;
+            motorColumns[column][slot] = telemetry.positionRots;
+            motorColumns[column + 1][slot] = telemetry.currentOut;
+            motorColumns[column + 2][slot] = telemetry.currentIn;
+            motorColumns[column + 3][slot] = telemetry.voltageOut;
+        }
+        sampleCount++;
+
+        checkTriggers(motorCount);
+
+        if (dumpCountdown > 0) {
+            dumpCountdown--;
+        } else if (dumpCountdown == 0) {
+            dumpCountdown = -1;
+            takeSnapshot();
+        }
+    }
+
+    private static void checkTriggers(int motorCount) {
+        Alert[] errors = Alerts.errors;
+        for (int i = 0; i < errors.length; i++) {
+            boolean active = errors[i].get();
+            if (active && !errorsActive[i]) trigger(errors[i].getText());
+            errorsActive[i] = active;
+        }
+
+        for (int i = 0; i < motorCount; i++) {
+            boolean critical = Logger.getMotorTelemetry(i).criticalFaultsActive;
+            if (critical && !motorsCritical[i]) trigger("Critical fault on " + Logger.getMotorRoot(i));
+            motorsCritical[i] = critical;
+        }
+    }
+
+    /**
+     * Only the first trigger of a burst names the dump, the rest land in the same window
+     */
+    private static void trigger(String reason) {
+        if (dumpCountdown >= 0) return;
+
+        dumpReason = reason;
+        dumpCountdown = postTriggerLoops;
+    }
+
+    private static void addMotors(int motorCount) {
+        int columns = motorCount * MOTOR_COLUMNS.length;
+        int oldColumns = motorColumns.length;
+        motorColumns = Arrays.copyOf(motorColumns, columns);
+        for (int i = oldColumns; i < columns; i++) {
+            // NaN until the motor was around, not a fake 0
+            motorColumns[i] = new double[capacity];
+            Arrays.fill(motorColumns[i], Double.NaN);
+        }
+        motorsCritical = Arrays.copyOf(motorsCritical, motorCount);
+
+        for (int i = oldColumns / MOTOR_COLUMNS.length; i < motorCount; i++) {
+            Logger.setMotorLogRate(i, MOTOR_LOG_RATE);
+        }
+    }
+
+    private static void takeSnapshot() {
+        if (writing) {
+            Logger.reportWarning("Flight recorder still writing the last dump, skipped: " + dumpReason, false);
+            return;
+        }
+
+        int size = (int) Math.min(sampleCount, capacity);
+        int oldest = (int) ((sampleCount - size) % capacity);
+        int motorCount = motorColumns.length / MOTOR_COLUMNS.length;
+
+        if (snapshotMotorColumns.length != motorColumns.length) {
+            int oldColumns = snapshotMotorColumns.length;
+            snapshotMotorColumns = Arrays.copyOf(snapshotMotorColumns, motorColumns.length);
+            for (int i = oldColumns; i < motorColumns.length; i++) {
+                snapshotMotorColumns[i] = new double[capacity];
+            }
+            snapshotMotorRoots = new String[motorCount];
+            for (int i = 0; i < motorCount; i++) {
+                snapshotMotorRoots[i] = Logger.getMotorRoot(i);
+            }
+        }
+
+        unroll(timestamps, snapshotTimestamps, oldest, size);
+        unroll(loopMs, snapshotLoopMs, oldest, size);
+        unroll(batteryVoltage, snapshotBattery, oldest, size);
+        for (int i = 0; i < motorColumns.length; i++) {
+            unroll(motorColumns[i], snapshotMotorColumns[i], oldest, size);
+        }
+        snapshotSize = size;
+        snapshotReason = dumpReason;
+
+        writing = true;
+        writer.execute(FlightRecorder::write);
+    }
+
+    /**
+     * Copy the ring into to, oldest sample first
+     */
+    private static void unroll(Object from, Object to, int oldest, int size) {
+        int firstPart = Math.min(size, capacity - oldest);
+        System.arraycopy(from, oldest, to, 0, firstPart);
+        System.arraycopy(from, 0, to, firstPart, size - firstPart);
+    }
+
+    /**
+     * Writer thread only
+     */
+    private static void write() {
+        try {
+            Path file = Paths.get(DataLogManager.getLogDir(), "flight_" + System.currentTimeMillis() + ".csv");
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("# " + snapshotReason.replace('\n', ' '));
+                out.newLine();
+
+                out.write("timeSeconds,loopMs,batteryVoltage");
+                for (String root : snapshotMotorRoots) {
+                    for (String column : MOTOR_COLUMNS) {
+                        out.write(',');
+                        out.write(root);
+                        out.write('/');
+                        out.write(column);
+                    }
+                }
+                out.newLine();
+
+                StringBuilder line = new StringBuilder(256);
+                for (int row = 0; row < snapshotSize; row++) {
+                    line.setLength(0);
+                    line.append(snapshotTimestamps[row] / 1e6)
+                            .append(',')
+                            .append(snapshotLoopMs[row])
+                            .append(',')
+                            .append(snapshotBattery[row]);
+                    for (double[] column : snapshotMotorColumns) {
+                        line.append(',');
+                        if (!Double.isNaN(column[row])) line.append(column[row]);
+                    }
+                    out.append(line);
+                    out.newLine();
+                }
+            }
+            Logger.println("Flight recorder wrote " + snapshotSize + " loops to " + file + " (" + snapshotReason + ")");
+        } catch (IOException e) {
+            Logger.reportWarning(e, false);
+        } finally {
+            writing = false;
+        }
+    }
+}
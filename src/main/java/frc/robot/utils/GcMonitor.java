@@ -0,0 +1,226 @@
+package frc.robot.utils;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Logs every stop-the-world GC pause (collector, duration, heap used after) under gc/pause/, matches pauses against
+ * LoopProfiler's overruns and raises Alerts.gcPauses when the pause time over the last minute crosses a threshold.
+ * Concurrent cycles (ZGC and Shenandoah "Cycles" beans) run alongside the robot code and are left out.
+ *
+ * The JVM reports collections on its own notification thread, which only fills a small fixed buffer. Everything is
+ * logged from periodic on the main thread. Pauses go straight to the DataLog, stamped with when they ended, rather
+ * than through LogKeys: several pauses can land in one loop, and rate limiting or delta mode would keep only one.
+ */
+public class GcMonitor {
+
+    private static final int PENDING_CAPACITY = 64;
+    // ring of recent pauses for the per-minute total, more than a minute of back to back collections is still just
+    // "too many"
+    private static final int RECENT_CAPACITY = 256;
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+    private static final long NANOS_PER_MS = 1_000_000;
+
+    private static boolean started = false;
+    private static long alertThresholdMsPerMinute = 500;
+    // System.nanoTime at JVM start, GcInfo times are ms since then
+    private static long jvmStartNanos;
+
+    // written by the notification thread, guarded by pendingLock
+    private static final Object pendingLock = new Object();
+    private static final String[] pendingCollectors = new String[PENDING_CAPACITY];
+    private static final long[] pendingStartNanos = new long[PENDING_CAPACITY];
+    private static final long[] pendingDurationMs = new long[PENDING_CAPACITY];
+    private static final long[] pendingHeapAfter = new long[PENDING_CAPACITY];
+    private static int pendingCount = 0;
+    private static long droppedPauses = 0;
+
+    // main thread only
+    private static final long[] recentEndNanos = new long[RECENT_CAPACITY];
+    private static final long[] recentDurationMs = new long[RECENT_CAPACITY];
+    private static int recentHead = 0, recentSize = 0;
+    private static long windowPauseMs = 0;
+    private static long pauseCount = 0;
+    private static long correlatedOverruns = 0;
+    private static long lastCorrelatedOverrun = 0;
+
+    // DataLog only, one record per pause, created in start
+    private static StringLogEntry collectorEntry;
+    private static IntegerLogEntry pauseMsEntry, heapAfterEntry;
+
+    private static final LogKey.IntegerKey pauseCountKey = Logger.integerKey("gc", "pauseCount"),
+            pauseMsPerMinuteKey = Logger.integerKey("gc", "pauseMsLastMinute"),
+            correlatedOverrunsKey = Logger.integerKey("gc", "overrunsWithPause"),
+            droppedKey = Logger.integerKey("gc", "droppedReports");
+
+    // prevent instantiating objects
+    private GcMonitor() {}
+
+    /**
+     * Subscribe to every collector's notifications. Call once from the Robot constructor
+     */
+    public static synchronized void start() {
+        if (started) return;
+
+        jvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * NANOS_PER_MS;
+
+        collectorEntry = new StringLogEntry(DataLogManager.getLog(), "/gc/pause/collector");
+        pauseMsEntry = new IntegerLogEntry(DataLogManager.getLog(), "/gc/pause/durationMs");
+        heapAfterEntry = new IntegerLogEntry(DataLogManager.getLog(), "/gc/pause/heapAfterBytes");
+
+        NotificationListener listener = GcMonitor::handleNotification;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(bean instanceof NotificationEmitter)) {
+                Logger.reportWarning("GC " + bean.getName() + " doesn't send notifications, not monitored", false);
+                continue;
+            }
+
+            ((NotificationEmitter) bean).addNotificationListener(listener, null, null);
+        }
+
+        started = true;
+    }
+
+    /**
+     * Alert when the pauses of the last minute add up to more than this
+     */
+    public static void setAlertThreshold(long msPerMinute) {
+        if (msPerMinute <= 0) {
+            Logger.reportWarning("GC alert threshold must be positive", true);
+            return;
+        }
+
+        alertThresholdMsPerMinute = msPerMinute;
+    }
+
+    /**
+     * Log the collections reported since the last call and match recent pauses against the last overrun. Call once per
+     * loop, an overrun is matched on the loop after it ends
+     */
+    public static void periodic() {
+        long now = System.nanoTime();
+        long nowMicros = WPIUtilJNI.now();
+
+        synchronized (pendingLock) {
+            for (int i = 0; i < pendingCount; i++) {
+                recordPause(
+                        pendingCollectors[i],
+                        pendingStartNanos[i],
+                        pendingDurationMs[i],
+                        pendingHeapAfter[i],
+                        now,
+                        nowMicros);
+                pendingCollectors[i] = null;
+            }
+            pendingCount = 0;
+            droppedKey.set(droppedPauses);
+        }
+        pauseCountKey.set(pauseCount);
+
+        // drop pauses that fell out of the minute
+        while (recentSize > 0 && now - recentEndNanos[recentHead] > WINDOW_NANOS) {
+            windowPauseMs -= recentDurationMs[recentHead];
+            recentHead = (recentHead + 1) & (RECENT_CAPACITY - 1);
+            recentSize--;
+        }
+
+        pauseMsPerMinuteKey.set(windowPauseMs);
+        Alerts.gcPauses.set(windowPauseMs > alertThresholdMsPerMinute);
+
+        correlateLastOverrun();
+    }
+
+    /**
+     * A pause overlapping the last overrun loop is most likely what made it overrun, count each overrun once. Pauses
+     * are checked newest first, so this stops at the first one that ended before the overrun started
+     */
+    private static void correlateLastOverrun() {
+        long overrunStart = LoopProfiler.getLastOverrunStartNanos();
+        long overrunEnd = LoopProfiler.getLastOverrunEndNanos();
+        if (overrunEnd == 0 || overrunStart == lastCorrelatedOverrun) return;
+
+        for (int i = recentSize - 1; i >= 0; i--) {
+            int slot = (recentHead + i) & (RECENT_CAPACITY - 1);
+            long endNanos = recentEndNanos[slot];
+            if (endNanos < overrunStart) return;
+
+            long startNanos = endNanos - recentDurationMs[slot] * NANOS_PER_MS;
+            if (startNanos <= overrunEnd) {
+                lastCorrelatedOverrun = overrunStart;
+                correlatedOverruns++;
+                correlatedOverrunsKey.set(correlatedOverruns);
+                Logger.reportWarning("Loop overrun coincided with a " + recentDurationMs[slot] + " ms GC pause", false);
+                return;
+            }
+        }
+    }
+
+    private static void recordPause(
+            String collector, long startNanos, long durationMs, long heapAfter, long nowNanos, long nowMicros) {
+        long endNanos = startNanos + durationMs * NANOS_PER_MS;
+
+        pauseCount++;
+        // back-date to the end of the pause, on the DataLog's clock
+        long timestamp = nowMicros - (nowNanos - endNanos) / 1000;
+        collectorEntry.append(collector, timestamp);
+        pauseMsEntry.append(durationMs, timestamp);
+        heapAfterEntry.append(heapAfter, timestamp);
+
+        if (recentSize == RECENT_CAPACITY) {
+            windowPauseMs -= recentDurationMs[recentHead];
+            recentHead = (recentHead + 1) & (RECENT_CAPACITY - 1);
+            recentSize--;
+        }
+        int tail = (recentHead + recentSize) & (RECENT_CAPACITY - 1);
+        recentEndNanos[tail] = endNanos;
+        recentDurationMs[tail] = durationMs;
+        recentSize++;
+        windowPauseMs += durationMs;
+    }
+
+    private static void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!isPause(info)) return;
+
+        GcInfo gcInfo = info.getGcInfo();
+        long heapAfter = 0;
+        for (MemoryUsage usage : gcInfo.getMemoryUsageAfterGc().values()) {
+            heapAfter += usage.getUsed();
+        }
+
+        synchronized (pendingLock) {
+            if (pendingCount == PENDING_CAPACITY) {
+                droppedPauses++;
+                return;
+            }
+
+            pendingCollectors[pendingCount] = info.getGcName();
+            pendingStartNanos[pendingCount] = jvmStartNanos + gcInfo.getStartTime() * NANOS_PER_MS;
+            pendingDurationMs[pendingCount] = gcInfo.getDuration();
+            pendingHeapAfter[pendingCount] = heapAfter;
+            pendingCount++;
+        }
+    }
+
+    /**
+     * ZGC and Shenandoah report each concurrent cycle ("end of GC cycle") on their own bean, with the cycle's full
+     * length as the duration, next to the actual pauses. "No GC" is a report that didn't collect anything
+     */
+    private static boolean isPause(GarbageCollectionNotificationInfo info) {
+        return !info.getGcAction().endsWith("cycle") && !"No GC".equals(info.getGcCause());
+    }
+}
@@ -0,0 +1,142 @@
+package frc.robot.utils;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Typed extra values logged under a motor, e.g. mechanism units like angleMechDeg. Register the fields once, usually in
+ * the subsystem constructor, and pass the same LogFields to Logger.log every loop. The suppliers are read when the
+ * motor is logged and written through pre-resolved keys, so nothing is formatted or boxed per loop.
+ *
+ * Use NaN for a double and null for an enum that currently has no value (logged as "none").
+ */
+public class LogFields {
+
+    private Field[] fields = new Field[0];
+    private String boundRoot = null;
+
+    public synchronized LogFields addDouble(String name, DoubleSupplier supplier) {
+        if (supplier == null) {
+            Logger.reportWarning("Cannot add a log field with a null supplier", true);
+            return this;
+        }
+
+        return add(new DoubleField(name, supplier));
+    }
+
+    public synchronized LogFields addBoolean(String name, BooleanSupplier supplier) {
+        if (supplier == null) {
+            Logger.reportWarning("Cannot add a log field with a null supplier", true);
+            return this;
+        }
+
+        return add(new BooleanField(name, supplier));
+    }
+
+    public synchronized LogFields addEnum(String name, Supplier<? extends Enum<?>> supplier) {
+        if (supplier == null) {
+            Logger.reportWarning("Cannot add a log field with a null supplier", true);
+            return this;
+        }
+
+        return add(new EnumField(name, supplier));
+    }
+
+    /**
+     * Read every field and log it under root. Called by Logger.log with the motor's root
+     */
+    synchronized void write(String root) {
+        if (!root.equals(boundRoot)) {
+            for (Field field : fields) {
+                field.bind(root);
+            }
+            boundRoot = root;
+        }
+
+        for (Field field : fields) {
+            field.write();
+        }
+    }
+
+    private LogFields add(Field field) {
+        fields = Arrays.copyOf(fields, fields.length + 1);
+        fields[fields.length - 1] = field;
+        boundRoot = null; // rebind everything on the next write
+        return this;
+    }
+
+    private abstract static class Field {
+        protected final String name;
+
+        protected Field(String name) {
+            this.name = name;
+        }
+
+        abstract void bind(String root);
+
+        abstract void write();
+    }
+
+    private static final class DoubleField extends Field {
+        private final DoubleSupplier supplier;
+        private LogKey.DoubleKey key;
+
+        DoubleField(String name, DoubleSupplier supplier) {
+            super(name);
+            this.supplier = supplier;
+        }
+
+        @Override
+        void bind(String root) {
+            key = Logger.doubleKey(root, name);
+        }
+
+        @Override
+        void write() {
+            key.set(supplier.getAsDouble());
+        }
+    }
+
+    private static final class BooleanField extends Field {
+        private final BooleanSupplier supplier;
+        private LogKey.BooleanKey key;
+
+        BooleanField(String name, BooleanSupplier supplier) {
+            super(name);
+            this.supplier = supplier;
+        }
+
+        @Override
+        void bind(String root) {
+            key = Logger.booleanKey(root, name);
+        }
+
+        @Override
+        void write() {
+            key.set(supplier.getAsBoolean());
+        }
+    }
+
+    private static final class EnumField extends Field {
+        private final Supplier<? extends Enum<?>> supplier;
+        private LogKey.StringKey key;
+
+        EnumField(String name, Supplier<? extends Enum<?>> supplier) {
+            super(name);
+            this.supplier = supplier;
+        }
+
+        @Override
+        void bind(String root) {
+            key = Logger.stringKey(root, name);
+        }
+
+        @Override
+        void write() {
+            Enum<?> val = supplier.get();
+            key.set(val == null ? "none" : val.name());
+        }
+    }
+}
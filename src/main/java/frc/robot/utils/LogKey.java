@@ -0,0 +1,887 @@
+package frc.robot.utils;
+
+import edu.wpi.first.networktables.BooleanArrayPublisher;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.FloatArrayPublisher;
+import edu.wpi.first.networktables.FloatPublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.RawPublisher;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.FloatArrayLogEntry;
+import edu.wpi.first.util.datalog.FloatLogEntry;
+import edu.wpi.first.util.datalog.IntegerArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.RawLogEntry;
+import edu.wpi.first.util.datalog.StringArrayLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.util.struct.Struct;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-resolved handle to a single logged value. Get one from Logger (e.g. Logger.doubleKey) once, usually in a
+ * subsystem constructor, and call set() every loop. Setting a key never builds strings or looks anything up.
+ *
+ * Every key writes straight to its own typed DataLog entry. Only keys on the dashboard (see Logger.setDashboard) also
+ * get an NT publisher, since NT is no longer mirrored into the DataLog.
+ *
+ * Each key remembers the last value it published so Logger's delta mode can drop unchanged writes, and can be limited
+ * to a LogRate so slow signals don't publish every loop.
+ *
+ * set() is safe to call from any thread once Logger.setAsync(true) is on: scalars are queued as raw bits, arrays are
+ * copied (callers tend to reuse them) into a small ring of buffers the key reuses, and the actual write happens on
+ * Logger's background thread, the only thread that touches the key's delta/rate state and publisher.
+ */
+public abstract class LogKey {
+
+    private final String path;
+    private final String type;
+    private boolean detached = false;
+    final NetworkTable nt;
+
+    // false until the first value goes out, so the first write is never suppressed
+    boolean hasValue;
+
+    // rate decimation and keyframe state, owned by Logger and only touched by the publishing thread
+    long nextWriteLoop = 0;
+    long nextKeyframeLoop = 0;
+    // dashboard decimation, same. dashboardPending is set when a value went out that NT hasn't been sent yet
+    boolean publisherOpen = false;
+    boolean dashboardPending = false;
+    long nextDashboardLoop = 0;
+
+    // requested rate and dashboard settings, written by any thread through Logger.applyRate/applyDashboard and picked
+    // up by the publishing thread on the key's next write once settingsChanged is set
+    volatile LogRate rate = LogRate.EVERY_LOOP;
+    volatile boolean rateFromRule = false;
+    volatile boolean restagger = false;
+    volatile boolean dashboard = false;
+    volatile boolean dashboardFromRule = false;
+    volatile LogRate dashboardRate = LogRate.EVERY_LOOP;
+    volatile boolean dashboardRateFromRule = false;
+    volatile boolean settingsChanged = false;
+
+    private LogKey(NetworkTable nt, String path, String type) {
+        this.nt = nt;
+        this.path = path;
+        this.type = type;
+    }
+
+    /**
+     * Normalized path of the topic this key publishes to, also used as the DataLog entry name
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * NetworkTables type string of the topic, e.g. "double"
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Limit how often this key publishes. Overrides any Logger.setRate prefix rule until the next one is added
+     */
+    public void setRate(LogRate rate) {
+        Logger.applyRate(this, rate, false);
+    }
+
+    public LogRate getRate() {
+        return rate;
+    }
+
+    /**
+     * Also publish this key to NT. Overrides any Logger.setDashboard prefix rule until the next one is added
+     */
+    public void setDashboard(boolean publish) {
+        Logger.applyDashboard(this, publish, false);
+    }
+
+    public boolean isOnDashboard() {
+        return dashboard;
+    }
+
+    /**
+     * Limit how often this key goes to NT without slowing its DataLog writes, so a fast signal can be logged every loop
+     * and still not flood the dashboard. NT always gets the latest value once its slot comes up. Overrides any
+     * Logger.setDashboardRate prefix rule until the next one is added
+     */
+    public void setDashboardRate(LogRate rate) {
+        Logger.applyDashboardRate(this, rate, false);
+    }
+
+    public LogRate getDashboardRate() {
+        return dashboardRate;
+    }
+
+    /**
+     * True for the stand-in Logger hands back when a path is already taken by a key of another type. It has no DataLog
+     * entry or NT publisher, every set() is dropped
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * Only called by Logger, on a key created without a DataLog entry, before it is handed out
+     */
+    void detach() {
+        detached = true;
+    }
+
+    /**
+     * Write a sample taken off Logger's async queue. Runs on the logging thread
+     */
+    abstract void drain(long bits, Object ref, long timestamp);
+
+    /**
+     * Open or close the NT publisher. Only called by Logger on the publishing thread
+     */
+    abstract void openPublisher(boolean open);
+
+    /**
+     * Slot bookkeeping for the buffers async sets copy into. Slots are claimed in order and freed in queue order, so
+     * the next slot is always the oldest one. The key keeps the buffers themselves, the queue only carries the index
+     */
+    static final class CopyRing {
+        // buffers each key can have in the async queue at once, the logging thread drains every few ms
+        static final int SIZE = 16; // power of 2, used as a mask
+
+        private final AtomicIntegerArray inUse = new AtomicIntegerArray(SIZE);
+        private final AtomicLong next = new AtomicLong();
+
+        /**
+         * Next free slot, or -1 (counted as a dropped sample) if the logging thread is SIZE samples of this key behind
+         */
+        int claim() {
+            int slot = (int) (next.getAndIncrement() & (SIZE - 1));
+            if (!inUse.compareAndSet(slot, 0, 1)) {
+                Logger.countDroppedSample();
+                return -1;
+            }
+            return slot;
+        }
+
+        /**
+         * Queue the claimed slot for key. A full queue counts the drop itself. If async was just turned off the sample
+         * is lost, like one that was still queued
+         */
+        void offer(LogKey key, int slot) {
+            if (!Logger.offer(key, slot, null)) inUse.set(slot, 0);
+        }
+
+        void free(int slot) {
+            inUse.set(slot, 0);
+        }
+    }
+
+    // copy val into reuse, only allocating when the length changed. Used for the async copies and the last values
+    private static boolean[] copyOf(boolean[] val, boolean[] reuse) {
+        boolean[] copy = reuse != null && reuse.length == val.length ? reuse : new boolean[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    private static double[] copyOf(double[] val, double[] reuse) {
+        double[] copy = reuse != null && reuse.length == val.length ? reuse : new double[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    private static float[] copyOf(float[] val, float[] reuse) {
+        float[] copy = reuse != null && reuse.length == val.length ? reuse : new float[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    private static long[] copyOf(long[] val, long[] reuse) {
+        long[] copy = reuse != null && reuse.length == val.length ? reuse : new long[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    private static byte[] copyOf(byte[] val, byte[] reuse) {
+        byte[] copy = reuse != null && reuse.length == val.length ? reuse : new byte[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    private static String[] copyOf(String[] val, String[] reuse) {
+        String[] copy = reuse != null && reuse.length == val.length ? reuse : new String[val.length];
+        System.arraycopy(val, 0, copy, 0, val.length);
+        return copy;
+    }
+
+    public static final class BooleanKey extends LogKey {
+        private final BooleanLogEntry entry;
+        private BooleanPublisher pub = null;
+        private boolean last;
+
+        BooleanKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "boolean");
+            entry = log == null ? null : new BooleanLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getBooleanTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(boolean val) {
+            if (Logger.enqueue(this, val ? 1 : 0, null)) return;
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            write(bits != 0, timestamp);
+        }
+
+        private void write(boolean val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && last == val);
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = val;
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class BooleanArrayKey extends LogKey {
+        private final BooleanArrayLogEntry entry;
+        private BooleanArrayPublisher pub = null;
+        private boolean[] last;
+        private final boolean[][] copies = new boolean[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        BooleanArrayKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "boolean[]");
+            entry = log == null ? null : new BooleanArrayLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getBooleanArrayTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(boolean[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(boolean[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class DoubleKey extends LogKey {
+        private final DoubleLogEntry entry;
+        private DoublePublisher pub = null;
+        private double last;
+        private SignalStats stats = null;
+        private DashboardStream stream = null;
+
+        DoubleKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "double");
+            entry = log == null ? null : new DoubleLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getDoubleTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(double val) {
+            // every sample, before delta mode or the rate can drop it
+            if (stats != null) stats.add(val);
+            if (stream != null) stream.add(val);
+            if (Logger.enqueue(this, Double.doubleToRawLongBits(val), null)) return;
+            write(val, 0);
+        }
+
+        /**
+         * Keep rolling stats of every value set on this key, published under the key's path + "Stats". set() must then
+         * only be called from one thread
+         */
+        public SignalStats attachStats(int windowSamples, LogRate publishRate) {
+            String path = getPath(); // normalized, always has a leading /
+            int split = path.lastIndexOf('/');
+            stats = new SignalStats(path.substring(0, split), path.substring(split + 1), windowSamples, publishRate);
+            return stats;
+        }
+
+        /**
+         * Publish this key's per-window min/max/last to the dashboard under its path + "Window" instead of every value,
+         * the full rate values still go to the DataLog. set() must then only be called from one thread
+         */
+        public DashboardStream attachDashboardStream(LogRate publishRate) {
+            String path = getPath();
+            int split = path.lastIndexOf('/');
+            stream = new DashboardStream(path.substring(0, split), path.substring(split + 1), publishRate);
+            setDashboard(false);
+            return stream;
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            write(Double.longBitsToDouble(bits), timestamp);
+        }
+
+        private void write(double val, long timestamp) {
+            // compare bits so NaN counts as unchanged
+            boolean unchanged = hasValue && Double.doubleToLongBits(last) == Double.doubleToLongBits(val);
+            int targets = Logger.publishTargets(this, unchanged);
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = val;
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class DoubleArrayKey extends LogKey {
+        private final DoubleArrayLogEntry entry;
+        private DoubleArrayPublisher pub = null;
+        private double[] last;
+        private final double[][] copies = new double[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        DoubleArrayKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "double[]");
+            entry = log == null ? null : new DoubleArrayLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getDoubleArrayTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(double[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(double[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class FloatKey extends LogKey {
+        private final FloatLogEntry entry;
+        private FloatPublisher pub = null;
+        private float last;
+
+        FloatKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "float");
+            entry = log == null ? null : new FloatLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getFloatTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(float val) {
+            if (Logger.enqueue(this, Float.floatToRawIntBits(val), null)) return;
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            write(Float.intBitsToFloat((int) bits), timestamp);
+        }
+
+        private void write(float val, long timestamp) {
+            boolean unchanged = hasValue && Float.floatToIntBits(last) == Float.floatToIntBits(val);
+            int targets = Logger.publishTargets(this, unchanged);
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = val;
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class FloatArrayKey extends LogKey {
+        private final FloatArrayLogEntry entry;
+        private FloatArrayPublisher pub = null;
+        private float[] last;
+        private final float[][] copies = new float[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        FloatArrayKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "float[]");
+            entry = log == null ? null : new FloatArrayLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getFloatArrayTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(float[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(float[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class IntegerKey extends LogKey {
+        private final IntegerLogEntry entry;
+        private IntegerPublisher pub = null;
+        private long last;
+
+        IntegerKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "int");
+            entry = log == null ? null : new IntegerLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getIntegerTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(long val) {
+            if (Logger.enqueue(this, val, null)) return;
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            write(bits, timestamp);
+        }
+
+        private void write(long val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && last == val);
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = val;
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class IntegerArrayKey extends LogKey {
+        private final IntegerArrayLogEntry entry;
+        private IntegerArrayPublisher pub = null;
+        private long[] last;
+        private final long[][] copies = new long[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        IntegerArrayKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "int[]");
+            entry = log == null ? null : new IntegerArrayLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getIntegerArrayTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(long[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(long[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class RawKey extends LogKey {
+        private final RawLogEntry entry;
+        private RawPublisher pub = null;
+        private byte[] last;
+        private final byte[][] copies = new byte[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        RawKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "raw");
+            entry = log == null ? null : new RawLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getRawTopic(getPath()).publish("raw");
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(byte[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        // buffers are usually reused by the caller, so they are never treated as unchanged
+        public void set(ByteBuffer val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                byte[] copy = copies[slot];
+                if (copy == null || copy.length != val.remaining()) copy = new byte[val.remaining()];
+                val.duplicate().get(copy);
+                copies[slot] = copy;
+                copyRing.offer(this, slot);
+                return;
+            }
+            int targets = Logger.publishTargets(this, false);
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = null;
+                if (entry != null) entry.append(val, val.position(), val.remaining(), 0);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(byte[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class StringKey extends LogKey {
+        private final StringLogEntry entry;
+        private StringPublisher pub = null;
+        private String last;
+
+        StringKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "string");
+            entry = log == null ? null : new StringLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getStringTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(String val) {
+            if (val == null) val = "";
+            if (Logger.enqueue(this, 0, val)) return;
+            write(val, 0);
+        }
+
+        public void set(Enum<?> val) {
+            set(val == null ? "" : val.name());
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            write((String) ref, timestamp);
+        }
+
+        private void write(String val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && val.equals(last));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = val;
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    public static final class StringArrayKey extends LogKey {
+        private final StringArrayLogEntry entry;
+        private StringArrayPublisher pub = null;
+        private String[] last;
+        private final String[][] copies = new String[CopyRing.SIZE][];
+        private final CopyRing copyRing = new CopyRing();
+
+        StringArrayKey(NetworkTable nt, DataLog log, String path) {
+            super(nt, path, "string[]");
+            entry = log == null ? null : new StringArrayLogEntry(log, path);
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                pub = nt.getStringArrayTopic(getPath()).publish();
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        public void set(String[] val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+                copies[slot] = copyOf(val, copies[slot]);
+                copyRing.offer(this, slot);
+                return;
+            }
+            write(val, 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(copies[slot], timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(String[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                last = copyOf(val, last);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+
+    /**
+     * A value serialized with a WPILib Struct into a single raw topic, which AdvantageScope decodes back into fields
+     */
+    public static final class StructKey<T> extends LogKey {
+        private final Struct<T> struct;
+        private final RawLogEntry entry;
+        private RawPublisher pub = null;
+        // packed into on every synchronous set so serializing never allocates
+        private final ByteBuffer buffer;
+        private final byte[] last;
+        // async sets pack into the next ring buffer, which the queue hands back (by index) to drain, which frees it
+        private final ByteBuffer[] ring = new ByteBuffer[CopyRing.SIZE];
+        private final CopyRing copyRing = new CopyRing();
+
+        StructKey(NetworkTable nt, DataLog log, String path, Struct<T> struct) {
+            super(nt, path, struct.getTypeString());
+            this.struct = struct;
+            if (log != null) log.addSchema(struct);
+            entry = log == null ? null : new RawLogEntry(log, path, "", struct.getTypeString());
+            buffer = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+            last = new byte[struct.getSize()];
+            for (int i = 0; i < CopyRing.SIZE; i++) {
+                ring[i] = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        @Override
+        void openPublisher(boolean open) {
+            if (open && pub == null) {
+                nt.getInstance().addSchema(struct);
+                pub = nt.getRawTopic(getPath()).publish(struct.getTypeString());
+            } else if (!open && pub != null) {
+                pub.close();
+                pub = null;
+            }
+        }
+
+        /**
+         * Serializes val right away, so the caller can reuse it as soon as this returns. Never allocates
+         */
+        public void set(T val) {
+            if (val == null) return;
+            if (Logger.isAsync()) {
+                int slot = copyRing.claim();
+                if (slot < 0) return;
+
+                ByteBuffer slotBuffer = ring[slot];
+                slotBuffer.clear();
+                struct.pack(slotBuffer, val);
+                copyRing.offer(this, slot);
+                return;
+            }
+            buffer.clear();
+            struct.pack(buffer, val);
+            write(buffer.array(), 0);
+        }
+
+        @Override
+        void drain(long bits, Object ref, long timestamp) {
+            int slot = (int) bits;
+            try {
+                write(ring[slot].array(), timestamp);
+            } finally {
+                copyRing.free(slot);
+            }
+        }
+
+        private void write(byte[] val, long timestamp) {
+            int targets = Logger.publishTargets(this, hasValue && Arrays.equals(last, val));
+            if ((targets & Logger.WRITE_LOG) != 0) {
+                System.arraycopy(val, 0, last, 0, last.length);
+                if (entry != null) entry.append(val, timestamp);
+            }
+            if ((targets & Logger.WRITE_DASHBOARD) != 0) pub.set(val, timestamp);
+        }
+    }
+}
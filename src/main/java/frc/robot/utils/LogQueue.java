@@ -0,0 +1,128 @@
+package frc.robot.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring buffer of log samples. Scalars are stored as raw long bits so
+ * enqueuing them never allocates, and every sample keeps the timestamp it was taken at rather than the time it gets
+ * written. Each slot carries a sequence number (Vyukov style) so producers only ever CAS the tail and never wait on
+ * each other or on the consumer. When the buffer is full the sample is dropped and counted.
+ *
+ * A slot with a null key is a loop marker, see Logger.periodic.
+ */
+class LogQueue {
+
+    private final int capacity, mask;
+    private final LogKey[] keys;
+    private final long[] bits;
+    private final long[] timestamps;
+    private final Object[] refs;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // only written by the consumer, volatile so flush() can watch it
+    private volatile long head = 0;
+
+    interface Sink {
+        void accept(LogKey key, long bits, Object ref, long timestamp);
+    }
+
+    LogQueue(int requestedCapacity) {
+        // round up to a power of two so the slot index is a mask instead of a division
+        capacity = Integer.highestOneBit(Math.max(requestedCapacity, 2) - 1) << 1;
+        mask = capacity - 1;
+        keys = new LogKey[capacity];
+        bits = new long[capacity];
+        timestamps = new long[capacity];
+        refs = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Safe to call from any thread. Returns false if the queue was full and the sample was dropped
+     */
+    boolean offer(LogKey key, long sampleBits, Object ref, long timestamp) {
+        long pos;
+        int idx;
+        while (true) {
+            pos = tail.get();
+            idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            // otherwise another producer claimed this slot first, retry with the new tail
+        }
+
+        keys[idx] = key;
+        bits[idx] = sampleBits;
+        refs[idx] = ref;
+        timestamps[idx] = timestamp;
+        sequences.set(idx, pos + 1); // publishes the slot to the consumer
+        return true;
+    }
+
+    /**
+     * Consumer thread only. Hands every ready sample to the sink and returns how many there were
+     */
+    int drain(Sink sink) {
+        int count = 0;
+        long pos = head;
+        while (true) {
+            int idx = (int) (pos & mask);
+            if (sequences.get(idx) != pos + 1) break;
+
+            LogKey key = keys[idx];
+            long sampleBits = bits[idx];
+            long timestamp = timestamps[idx];
+            Object ref = refs[idx];
+            keys[idx] = null;
+            refs[idx] = null;
+            sequences.lazySet(idx, pos + capacity); // hand the slot back to producers
+
+            pos++;
+            head = pos;
+            count++;
+
+            sink.accept(key, sampleBits, ref, timestamp);
+        }
+        return count;
+    }
+
+    /**
+     * Position the next offered sample will get, anything before it has been offered
+     */
+    long getTail() {
+        return tail.get();
+    }
+
+    /**
+     * Position of the next sample the consumer will take
+     */
+    long getHead() {
+        return head;
+    }
+
+    /**
+     * Count a sample dropped on its way to the queue. Safe to call from any thread
+     */
+    void countDrop() {
+        dropped.incrementAndGet();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+}
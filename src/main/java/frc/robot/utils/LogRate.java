@@ -0,0 +1,17 @@
+package frc.robot.utils;
+
+/**
+ * How often a LogKey is allowed to publish. Periods are in robot loops, assuming the default 20 ms loop
+ */
+public enum LogRate {
+    EVERY_LOOP(1),
+    HZ_10(5),
+    HZ_2(25),
+    HZ_1(50);
+
+    public final int periodLoops;
+
+    private LogRate(int periodLoops) {
+        this.periodLoops = periodLoops;
+    }
+}
@@ -0,0 +1,300 @@
+package frc.robot.utils;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Feeds a recorded .wpilog back into the robot code in simulation, see ReplayMain. Each step() applies every record up
+ * to the next loop's time: the driver station state and joysticks (logged by DriverStation.startDataLog) go through
+ * DriverStationSim, motor telemetry is handed to Logger.log, which fills the sensor side of the motor's snapshot and
+ * TalonFXSignals from it instead of the controller, and the battery voltage is exposed for the PDP sim. Motor outputs
+ * (duty cycle, output voltage, target, control mode, enable) are never replayed, they are whatever the code commands.
+ *
+ * The log is read in a single pass as it's stepped, at a fixed period, so the same log always produces the same inputs
+ * on the same loops. Records aren't written in strict timestamp order (the async Logger writes a sample a little after
+ * it was stamped), so they go through a reorder buffer holding REORDER_MICROS of the log past the current loop. Memory
+ * stays at that buffer however long the log is. Main thread only.
+ */
+public class LogReplay {
+
+    private static final String TELEMETRY_SUFFIX = "/telemetry";
+    private static final String BATTERY_ENTRY = "/robot/batteryVoltage";
+    private static final int JOYSTICKS = 6;
+
+    private static final int ENABLED = 0, AUTONOMOUS = 1, TEST = 2, ESTOP = 3, BUTTONS = 4, AXES = 5, POVS = 6;
+    private static final int MOTOR = 7, BATTERY = 8;
+    // how far out of order records can be written, well past the logging thread's usual lag
+    private static final long REORDER_MICROS = 1_000_000;
+
+    private static boolean active = false;
+    private static Iterator<DataLogRecord> reader = null;
+    private static final Map<Integer, Entry> entries = new HashMap<>();
+    // read but not applied yet, oldest first. Records with the same timestamp keep their log order
+    private static final PriorityQueue<Record> pending = new PriorityQueue<>((a, b) -> a.timestamp != b.timestamp
+            ? Long.compare(a.timestamp, b.timestamp)
+            : Long.compare(a.sequence, b.sequence));
+    private static long nextSequence = 0;
+    private static long latestReadMicros = Long.MIN_VALUE;
+    private static long nowMicros = 0;
+    private static long periodMicros = 20_000;
+
+    // latest raw MotorTelemetry per motor root, e.g. "elev/motor"
+    private static final Map<String, ByteBuffer> motors = new HashMap<>();
+    private static double batteryVoltage = Double.NaN;
+
+    // prevent instantiating objects
+    private LogReplay() {}
+
+    private static final class Record {
+        final long timestamp;
+        final long sequence;
+        final Entry entry;
+        // a view into the log file, decoded when applied
+        final DataLogRecord record;
+
+        Record(long sequence, Entry entry, DataLogRecord record) {
+            this.timestamp = record.getTimestamp();
+            this.sequence = sequence;
+            this.entry = entry;
+            this.record = record;
+        }
+    }
+
+    private static final class Entry {
+        final int kind;
+        // 0 unless it's a joystick entry
+        final int joystick;
+        // null unless it's a motor telemetry entry
+        final String motor;
+
+        Entry(int kind, int joystick, String motor) {
+            this.kind = kind;
+            this.joystick = joystick;
+            this.motor = motor;
+        }
+    }
+
+    /**
+     * Open the log and turn replay on. Call before the Robot is constructed. Returns false if the log can't be read
+     */
+    public static boolean load(String path, double periodSeconds) {
+        DataLogReader log;
+        try {
+            log = new DataLogReader(path);
+        } catch (IOException e) {
+            Logger.reportError(e);
+            return false;
+        }
+        if (!log.isValid()) {
+            Logger.reportError("Not a valid wpilog: " + path);
+            return false;
+        }
+
+        reader = log.iterator();
+        entries.clear();
+        pending.clear();
+        Record first = readNext();
+        if (first == null) {
+            reader = null;
+            Logger.reportError("Nothing to replay in " + path);
+            return false;
+        }
+
+        pending.add(first);
+        nowMicros = first.timestamp;
+        periodMicros = (long) (periodSeconds * 1e6);
+        active = true;
+        DriverStationSim.setDsAttached(true);
+        Logger.println("Replaying " + path);
+        return true;
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Apply every record up to the next loop. Returns false once the log is used up
+     */
+    public static boolean step() {
+        if (!active) return false;
+
+        // anything still unread is past this loop once a record this far ahead has been read
+        while (latestReadMicros <= nowMicros + REORDER_MICROS) {
+            Record record = readNext();
+            if (record == null) break;
+            pending.add(record);
+        }
+        if (pending.isEmpty()) return false;
+
+        boolean dsChanged = false;
+        while (!pending.isEmpty() && pending.peek().timestamp <= nowMicros) {
+            dsChanged |= apply(pending.poll());
+        }
+        if (dsChanged) DriverStationSim.notifyNewData();
+
+        nowMicros += periodMicros;
+        return true;
+    }
+
+    /**
+     * Log time (us) of the loop about to run
+     */
+    public static long getLogTimeMicros() {
+        return nowMicros - periodMicros;
+    }
+
+    /**
+     * Last replayed battery voltage, NaN if the log has none
+     */
+    public static double getBatteryVoltage() {
+        return batteryVoltage;
+    }
+
+    /**
+     * Fill out with the latest replayed telemetry of root (subsystem/name). Returns false if the log has none for it
+     */
+    static boolean readMotor(String root, MotorTelemetry out) {
+        ByteBuffer raw = motors.get(root);
+        if (raw == null) return false;
+
+        raw.rewind();
+        MotorTelemetry.struct.unpackInto(out, raw);
+        return true;
+    }
+
+    /**
+     * The next record of a replayed entry, in log order, or null once the log is used up
+     */
+    private static Record readNext() {
+        while (reader != null && reader.hasNext()) {
+            DataLogRecord record = reader.next();
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                Entry entry = classify(start.name, start.type);
+                if (entry != null) entries.put(start.entry, entry);
+                continue;
+            }
+            if (record.isControl()) continue;
+
+            Entry entry = entries.get(record.getEntry());
+            if (entry == null) continue;
+
+            latestReadMicros = Math.max(latestReadMicros, record.getTimestamp());
+            return new Record(nextSequence++, entry, record);
+        }
+        return null;
+    }
+
+    private static Entry classify(String name, String type) {
+        switch (name) {
+            case "DS:enabled":
+                return new Entry(ENABLED, 0, null);
+            case "DS:autonomous":
+                return new Entry(AUTONOMOUS, 0, null);
+            case "DS:test":
+                return new Entry(TEST, 0, null);
+            case "DS:estop":
+                return new Entry(ESTOP, 0, null);
+            case BATTERY_ENTRY:
+                return new Entry(BATTERY, 0, null);
+            default:
+                break;
+        }
+
+        if (name.startsWith("DS:joystick")) {
+            int slash = name.indexOf('/');
+            int stick;
+            try {
+                stick = Integer.parseInt(name.substring("DS:joystick".length(), slash));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return null;
+            }
+            if (stick < 0 || stick >= JOYSTICKS) return null;
+
+            switch (name.substring(slash + 1)) {
+                case "buttons":
+                    return new Entry(BUTTONS, stick, null);
+                case "axes":
+                    return new Entry(AXES, stick, null);
+                case "povs":
+                    return new Entry(POVS, stick, null);
+                default:
+                    return null;
+            }
+        }
+
+        if (name.endsWith(TELEMETRY_SUFFIX) && type.equals(MotorTelemetry.struct.getTypeString())) {
+            // the entry is the normalized key path, Logger.log looks motors up by the root it was given
+            String root = name.substring(name.startsWith("/") ? 1 : 0, name.length() - TELEMETRY_SUFFIX.length());
+            return new Entry(MOTOR, 0, root);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the record changed driver station data
+     */
+    private static boolean apply(Record pendingRecord) {
+        DataLogRecord record = pendingRecord.record;
+        Entry entry = pendingRecord.entry;
+        switch (entry.kind) {
+            case ENABLED:
+                DriverStationSim.setEnabled(record.getBoolean());
+                return true;
+            case AUTONOMOUS:
+                DriverStationSim.setAutonomous(record.getBoolean());
+                return true;
+            case TEST:
+                DriverStationSim.setTest(record.getBoolean());
+                return true;
+            case ESTOP:
+                DriverStationSim.setEStop(record.getBoolean());
+                return true;
+            case BUTTONS: {
+                boolean[] buttons = record.getBooleanArray();
+                int bits = 0;
+                for (int i = 0; i < buttons.length && i < 32; i++) {
+                    if (buttons[i]) bits |= 1 << i; // button 1 is bit 0
+                }
+                DriverStationSim.setJoystickButtonCount(entry.joystick, buttons.length);
+                DriverStationSim.setJoystickButtons(entry.joystick, bits);
+                return true;
+            }
+            case AXES: {
+                float[] axes = record.getFloatArray();
+                DriverStationSim.setJoystickAxisCount(entry.joystick, axes.length);
+                for (int i = 0; i < axes.length; i++) {
+                    DriverStationSim.setJoystickAxis(entry.joystick, i, axes[i]);
+                }
+                return true;
+            }
+            case POVS: {
+                long[] povs = record.getIntegerArray();
+                DriverStationSim.setJoystickPOVCount(entry.joystick, povs.length);
+                for (int i = 0; i < povs.length; i++) {
+                    DriverStationSim.setJoystickPOV(entry.joystick, i, (int) povs[i]);
+                }
+                return true;
+            }
+            case BATTERY:
+                batteryVoltage = record.getDouble();
+                return false;
+            case MOTOR: {
+                // only the latest one per motor is kept
+                motors.put(entry.motor, ByteBuffer.wrap(record.getRaw()).order(ByteOrder.LITTLE_ENDIAN));
+                return false;
+            }
+            default:
+                return false;
+        }
+    }
+}
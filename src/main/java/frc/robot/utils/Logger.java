@@ -1,21 +1,26 @@
 package frc.robot.utils;
 
 import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.signals.DeviceEnableValue;
-import com.revrobotics.spark.SparkBase.Faults;
-import com.revrobotics.spark.SparkBase.Warnings;
 import com.revrobotics.spark.SparkMax;
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEvent;
 import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.units.Units;
+import edu.wpi.first.networktables.StringEntry;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 public class Logger {
 
@@ -24,10 +29,105 @@ public class Logger {
     private static boolean hasInited;
     private static NetworkTableInstance ntInstance;
     private static NetworkTable nt;
+    private static DataLog dataLog;
+
+    // delta mode, see setDeltaMode
+    private static boolean deltaMode = false;
+    private static int keyframePeriodLoops = 0;
+    // loopCount is only written by whichever thread publishes (see setAsync), volatile for readers
+    private static volatile long loopCount = 0;
+    private static final LongAdder publishedWrites = new LongAdder();
+    private static final LongAdder suppressedWrites = new LongAdder();
+    private static final LongAdder decimatedWrites = new LongAdder();
+    private static LogKey.IntegerKey publishedWritesKey, suppressedWritesKey, decimatedWritesKey;
+    private static LogKey.IntegerKey droppedSamplesKey, queueDepthKey;
+
+    // async pipeline, see setAsync. Each key's delta/rate/publisher state is only touched by the thread that publishes,
+    // other threads request rate and dashboard changes through the key and the publishing thread picks them up
+    private static final int QUEUE_CAPACITY = 8192;
+    // queue position flush() asked the logging thread to reach before flushing, -1 when nothing is requested
+    private static volatile long flushTarget = -1;
+    private static final LogQueue.Sink DRAIN_SINK = Logger::drainSample;
+    private static volatile LogQueue queue = null;
+    private static Thread logThread = null;
+
+    // rate tiers, see setRate. staggerCounter spreads low rate keys over the loops of their period, only used while
+    // publishing
+    private static final Map<String, LogRate> rateRules = new HashMap<>();
+    private static int staggerCounter = 0;
+
+    // dashboard subset, see setDashboard. Keys not on the dashboard only go to the DataLog
+    private static final Map<String, Boolean> dashboardRules = new HashMap<>();
+    // NT-only rate tiers, see setDashboardRate
+    private static final Map<String, LogRate> dashboardRateRules = new HashMap<>();
+
+    // publishTargets bits
+    static final int WRITE_LOG = 1, WRITE_DASHBOARD = 2;
+
+    // see setProfile. Requests from NT arrive on the listener thread and are applied in periodic
+    private static TelemetryProfile profile = null;
+    private static volatile TelemetryProfile requestedProfile = null;
+    private static StringEntry profileEntry;
+
+    // normalized path -> key, guarded by itself. The string overloads look keys up by the raw subsystem, then key, they
+    // were given, lock-free and without building the path. Written under keys' lock
+    private static final Map<String, LogKey> keys = new HashMap<>();
+    private static final Map<String, Map<String, LogKey>> rawKeys = new ConcurrentHashMap<>();
+    // subsystem -> name -> motor, same as rawKeys. Written under motorKeys' lock
+    private static final Map<String, Map<String, MotorKeys>> motorKeys = new ConcurrentHashMap<>();
+    // copy on write list of motorKeys' values, so other threads can read motors without taking the map's lock
+    private static volatile MotorKeys[] motorKeyList = new MotorKeys[0];
+    private static boolean hasPublishedSchemas = false;
+
+    // warning/error dedup, see report. Sites are the first frame outside the logging classes, capped so the map can't
+    // grow forever
+    private static final long REPORT_SUMMARY_PERIOD_US = 5_000_000;
+    private static final int MAX_REPORT_SITES = 256;
+    // frames of these (and their nested classes and lambdas) are never a report's call site, see isInternalFrame
+    private static final String[] INTERNAL_CLASSES = {
+        Logger.class.getName(),
+        LogKey.class.getName(),
+        LogFields.class.getName(),
+        LogQueue.class.getName(),
+        LogReplay.class.getName(),
+        MotorTelemetry.class.getName(),
+        TalonFXSignals.class.getName(),
+        SignalStats.class.getName(),
+        DashboardStream.class.getName(),
+        TelemetryProfile.class.getName()
+    };
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final Map<StackTraceElement, ReportSite> reportSites = new HashMap<>();
+
+    private static final KeyFactory<LogKey.BooleanKey> BOOLEAN_FACTORY =
+            (log, path) -> new LogKey.BooleanKey(nt, log, path);
+    private static final KeyFactory<LogKey.BooleanArrayKey> BOOLEAN_ARRAY_FACTORY =
+            (log, path) -> new LogKey.BooleanArrayKey(nt, log, path);
+    private static final KeyFactory<LogKey.DoubleKey> DOUBLE_FACTORY =
+            (log, path) -> new LogKey.DoubleKey(nt, log, path);
+    private static final KeyFactory<LogKey.DoubleKey> DASHBOARD_DOUBLE_FACTORY =
+            (log, path) -> new LogKey.DoubleKey(nt, null, path);
+    private static final KeyFactory<LogKey.DoubleArrayKey> DOUBLE_ARRAY_FACTORY =
+            (log, path) -> new LogKey.DoubleArrayKey(nt, log, path);
+    private static final KeyFactory<LogKey.FloatKey> FLOAT_FACTORY =
+            (log, path) -> new LogKey.FloatKey(nt, log, path);
+    private static final KeyFactory<LogKey.FloatArrayKey> FLOAT_ARRAY_FACTORY =
+            (log, path) -> new LogKey.FloatArrayKey(nt, log, path);
+    private static final KeyFactory<LogKey.IntegerKey> INTEGER_FACTORY =
+            (log, path) -> new LogKey.IntegerKey(nt, log, path);
+    private static final KeyFactory<LogKey.IntegerArrayKey> INTEGER_ARRAY_FACTORY =
+            (log, path) -> new LogKey.IntegerArrayKey(nt, log, path);
+    private static final KeyFactory<LogKey.RawKey> RAW_FACTORY = (log, path) -> new LogKey.RawKey(nt, log, path);
+    private static final KeyFactory<LogKey.StringKey> STRING_FACTORY =
+            (log, path) -> new LogKey.StringKey(nt, log, path);
+    private static final KeyFactory<LogKey.StringArrayKey> STRING_ARRAY_FACTORY =
+            (log, path) -> new LogKey.StringArrayKey(nt, log, path);
 
     static {
+        BootProfiler.begin("Logger static init");
         hasInited = false;
         init();
+        BootProfiler.end();
     }
 
     private Logger() {}
@@ -37,15 +137,499 @@ public class Logger {
 
         DataLogManager.start();
         DataLogManager.logConsoleOutput(true);
-        DataLogManager.logNetworkTables(true);
+        // keys write to the DataLog themselves, mirroring NT as well would log every dashboard value twice
+        DataLogManager.logNetworkTables(false);
         DriverStation.startDataLog(DataLogManager.getLog(), true);
 
         ntInstance = NetworkTableInstance.getDefault();
         nt = ntInstance.getTable("/");
+        dataLog = DataLogManager.getLog();
 
         println("Logging started");
 
         hasInited = true;
+
+        publishedWritesKey = integerKey("logger", "publishedWrites");
+        suppressedWritesKey = integerKey("logger", "suppressedWrites");
+        decimatedWritesKey = integerKey("logger", "decimatedWrites");
+        droppedSamplesKey = integerKey("logger", "droppedSamples");
+        queueDepthKey = integerKey("logger", "queueDepth");
+
+        // written by the dashboard, and back by setProfile so it always shows the active profile
+        profileEntry = ntInstance.getStringTopic("/logger/profile").getEntry("");
+        ntInstance.addListener(profileEntry, EnumSet.of(NetworkTableEvent.Kind.kValueRemote), Logger::onProfileRequest);
+    }
+
+    /**
+     * Call once at the end of robotPeriodic, after everything else has logged
+     */
+    public static void periodic() {
+        TelemetryProfile requested = requestedProfile;
+        if (requested != null) {
+            requestedProfile = null;
+            setProfile(requested);
+        }
+
+        LogQueue q = queue;
+        if (q == null) {
+            endLoop(0);
+            return;
+        }
+
+        // the logging thread ends the loop when it reaches this marker, so it stays in order with the samples
+        q.offer(null, 0, null, WPIUtilJNI.now());
+        LockSupport.unpark(logThread);
+    }
+
+    private static void endLoop(long timestamp) {
+        // write straight through, this already runs on whichever thread publishes
+        publishedWritesKey.drain(publishedWrites.sum(), null, timestamp);
+        suppressedWritesKey.drain(suppressedWrites.sum(), null, timestamp);
+        decimatedWritesKey.drain(decimatedWrites.sum(), null, timestamp);
+
+        LogQueue q = queue;
+        if (q != null) {
+            droppedSamplesKey.drain(q.getDroppedCount(), null, timestamp);
+            queueDepthKey.drain(q.getTail() - q.getHead(), null, timestamp);
+        }
+
+        loopCount++;
+    }
+
+    /**
+     * With async on, LogKey.set only drops the sample into a bounded lock-free queue and a low priority background
+     * thread does the delta/rate checks and the DataLog/NT writes, stamped with the time set() was called. This takes
+     * publishing off the main loop and makes Logger safe to call from other threads (e.g. Notifiers). If the queue
+     * fills up, samples are dropped and counted under logger/droppedSamples.
+     */
+    public static synchronized void setAsync(boolean enabled) {
+        if (enabled == (queue != null)) return;
+
+        if (enabled) {
+            LogQueue q = new LogQueue(QUEUE_CAPACITY);
+            queue = q;
+            logThread = new Thread(() -> runLogThread(q), "Logger");
+            logThread.setDaemon(true);
+            logThread.setPriority(Thread.MIN_PRIORITY);
+            logThread.start();
+        } else {
+            // the thread drains what is left and exits once it sees the queue is gone. Wait for it, so the calling
+            // thread only takes over the keys once the logging thread is done with them
+            queue = null;
+            LockSupport.unpark(logThread);
+            try {
+                logThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logThread = null;
+        }
+    }
+
+    public static boolean isAsync() {
+        return queue != null;
+    }
+
+    /**
+     * Ask for everything logged so far to be flushed to NT and the DataLog file. Never waits: with async on, the
+     * logging thread flushes once it has written everything queued before this call. Call from disabledInit
+     */
+    public static void flush() {
+        printPendingSummaries();
+
+        LogQueue q = queue;
+        if (q != null) {
+            flushTarget = q.getTail();
+            LockSupport.unpark(logThread);
+            return;
+        }
+
+        ntInstance.flushLocal();
+        DataLogManager.getLog().flush();
+    }
+
+    /**
+     * flush() and wait (up to timeoutSeconds) for the logging thread to get there. Only for shutdown paths like the
+     * end of a replay, never on the robot loop
+     */
+    public static void flushAndWait(double timeoutSeconds) {
+        flush();
+        if (!awaitDrained(timeoutSeconds)) reportWarning("Timed out flushing the log queue", false);
+    }
+
+    /**
+     * Wait (up to timeoutSeconds) for the logging thread to write everything queued so far, without asking for a
+     * flush. Returns false on timeout, true right away with async off
+     */
+    static boolean awaitDrained(double timeoutSeconds) {
+        LogQueue q = queue;
+        if (q == null) return true;
+
+        long target = q.getTail();
+        LockSupport.unpark(logThread);
+        long deadline = System.nanoTime() + (long) (timeoutSeconds * 1e9);
+        while (q.getHead() < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+        }
+        return q.getHead() >= target;
+    }
+
+    /**
+     * Called by LogKey.set, returns false if async is off and the caller should write directly
+     */
+    static boolean enqueue(LogKey key, long bits, Object ref) {
+        LogQueue q = queue;
+        if (q == null) return false;
+
+        q.offer(key, bits, ref, WPIUtilJNI.now()); // a full queue counts the drop itself
+        return true;
+    }
+
+    /**
+     * Like enqueue, but returns false when the sample was not queued for any reason (async off or the queue full), for
+     * keys that lend the queue a buffer and have to take it back
+     */
+    static boolean offer(LogKey key, long bits, Object ref) {
+        LogQueue q = queue;
+        return q != null && q.offer(key, bits, ref, WPIUtilJNI.now());
+    }
+
+    /**
+     * Count a sample a key dropped before it reached the queue, under logger/droppedSamples
+     */
+    static void countDroppedSample() {
+        LogQueue q = queue;
+        if (q != null) q.countDrop();
+    }
+
+    private static void runLogThread(LogQueue q) {
+        while (queue == q) {
+            int drained = q.drain(DRAIN_SINK);
+            long target = flushTarget;
+            if (target >= 0 && q.getHead() >= target) {
+                flushTarget = -1;
+                ntInstance.flushLocal();
+                DataLogManager.getLog().flush();
+            }
+            if (drained == 0) LockSupport.parkNanos(2_000_000);
+        }
+
+        q.drain(DRAIN_SINK);
+        ntInstance.flushLocal();
+        DataLogManager.getLog().flush();
+    }
+
+    private static void drainSample(LogKey key, long bits, Object ref, long timestamp) {
+        try {
+            if (key == null) {
+                endLoop(timestamp);
+            } else {
+                key.drain(bits, ref, timestamp);
+            }
+        } catch (RuntimeException e) {
+            reportError(e);
+        }
+    }
+
+    /**
+     * In delta mode a key is only written to the DataLog (and NT) when its value differs from the last value it
+     * wrote. A key that hasn't written for keyframePeriodLoops loops is written regardless so dashboards that connect
+     * late still get the full state. Keyframes are staggered per key. Pass 0 to disable keyframes.
+     */
+    public static void setDeltaMode(boolean enabled, int keyframePeriodLoops) {
+        if (keyframePeriodLoops < 0) {
+            reportWarning("Keyframe period cannot be negative, disabling keyframes", true);
+            keyframePeriodLoops = 0;
+        }
+
+        deltaMode = enabled;
+        Logger.keyframePeriodLoops = keyframePeriodLoops;
+    }
+
+    public static boolean isDeltaMode() {
+        return deltaMode;
+    }
+
+    /**
+     * Number of key writes that have reached the DataLog since startup
+     */
+    public static long getPublishedWriteCount() {
+        return publishedWrites.sum();
+    }
+
+    /**
+     * Number of key writes dropped by delta mode since startup
+     */
+    public static long getSuppressedWriteCount() {
+        return suppressedWrites.sum();
+    }
+
+    /**
+     * Number of key writes dropped because the key's LogRate slot hadn't come up yet
+     */
+    public static long getDecimatedWriteCount() {
+        return decimatedWrites.sum();
+    }
+
+    /**
+     * Limit every key whose path starts with prefix (e.g. "elev/motor/tempC" or "climb") to the given rate. The longest
+     * matching prefix wins, and rules also apply to keys created later
+     */
+    public static void setRate(String prefix, LogRate rate) {
+        if (prefix == null || rate == null) {
+            reportWarning("Cannot set a rate rule with a null prefix or rate", true);
+            return;
+        }
+
+        String normalized = NetworkTable.normalizeKey(prefix);
+        synchronized (keys) {
+            rateRules.put(normalized, rate);
+            for (LogKey key : keys.values()) {
+                if (key.getPath().startsWith(normalized)) {
+                    applyRate(key, resolveRule(rateRules, key.getPath()), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish every key whose path starts with prefix to NT as well as the DataLog, or stop publishing it. The longest
+     * matching prefix wins, and rules also apply to keys created later. Keys are on the dashboard by default
+     */
+    public static void setDashboard(String prefix, boolean publish) {
+        if (prefix == null) {
+            reportWarning("Cannot set a dashboard rule with a null prefix", true);
+            return;
+        }
+
+        String normalized = NetworkTable.normalizeKey(prefix);
+        synchronized (keys) {
+            dashboardRules.put(normalized, publish);
+            for (LogKey key : keys.values()) {
+                if (key.getPath().startsWith(normalized)) {
+                    applyDashboard(key, resolveRule(dashboardRules, key.getPath()), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Limit every key whose path starts with prefix to the given rate on NT only, the DataLog keeps its own rate (see
+     * setRate). NT always gets the latest value once a slot comes up. The longest matching prefix wins, and rules also
+     * apply to keys created later
+     */
+    public static void setDashboardRate(String prefix, LogRate rate) {
+        if (prefix == null || rate == null) {
+            reportWarning("Cannot set a dashboard rate rule with a null prefix or rate", true);
+            return;
+        }
+
+        String normalized = NetworkTable.normalizeKey(prefix);
+        synchronized (keys) {
+            dashboardRateRules.put(normalized, rate);
+            for (LogKey key : keys.values()) {
+                if (key.getPath().startsWith(normalized)) {
+                    applyDashboardRate(key, resolveRule(dashboardRateRules, key.getPath()), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace every rate, dashboard and dashboard rate prefix rule with the profile's. Keys only change if their rule
+     * did, so switching doesn't reopen publishers that stay on the dashboard. Allocates, switch on mode changes rather
+     * than every loop
+     */
+    public static void setProfile(TelemetryProfile newProfile) {
+        if (newProfile == null) {
+            reportWarning("Cannot switch to a null TelemetryProfile", true);
+            return;
+        }
+
+        Map<String, LogRate> rates = new HashMap<>();
+        Map<String, Boolean> dashboard = new HashMap<>();
+        Map<String, LogRate> dashboardRates = new HashMap<>();
+        newProfile.addRules(rates, dashboard, dashboardRates);
+
+        synchronized (keys) {
+            rateRules.clear();
+            for (Entry<String, LogRate> rule : rates.entrySet()) {
+                rateRules.put(NetworkTable.normalizeKey(rule.getKey()), rule.getValue());
+            }
+            dashboardRules.clear();
+            for (Entry<String, Boolean> rule : dashboard.entrySet()) {
+                dashboardRules.put(NetworkTable.normalizeKey(rule.getKey()), rule.getValue());
+            }
+            dashboardRateRules.clear();
+            for (Entry<String, LogRate> rule : dashboardRates.entrySet()) {
+                dashboardRateRules.put(NetworkTable.normalizeKey(rule.getKey()), rule.getValue());
+            }
+
+            for (LogKey key : keys.values()) {
+                LogRate rate = resolveRule(rateRules, key.getPath());
+                if (rate != null) {
+                    if (!key.rateFromRule || key.rate != rate) applyRate(key, rate, true);
+                } else if (key.rateFromRule) {
+                    applyRate(key, LogRate.EVERY_LOOP, false); // back to the default
+                }
+
+                Boolean publish = resolveRule(dashboardRules, key.getPath());
+                if (publish != null) {
+                    if (!key.dashboardFromRule || key.dashboard != publish) applyDashboard(key, publish, true);
+                } else if (key.dashboardFromRule) {
+                    applyDashboard(key, true, false);
+                }
+
+                LogRate dashboardRate = resolveRule(dashboardRateRules, key.getPath());
+                if (dashboardRate != null) {
+                    if (!key.dashboardRateFromRule || key.dashboardRate != dashboardRate) {
+                        applyDashboardRate(key, dashboardRate, true);
+                    }
+                } else if (key.dashboardRateFromRule) {
+                    applyDashboardRate(key, LogRate.EVERY_LOOP, false);
+                }
+            }
+        }
+
+        if (newProfile != profile) println("Telemetry profile " + newProfile);
+        profile = newProfile;
+        if (profileEntry != null) profileEntry.set(newProfile.name());
+    }
+
+    /**
+     * Active profile, null until setProfile is first called (no rules but the ones set by hand)
+     */
+    public static TelemetryProfile getProfile() {
+        return profile;
+    }
+
+    private static void onProfileRequest(NetworkTableEvent event) {
+        String name = event.valueData.value.getString();
+        try {
+            requestedProfile = TelemetryProfile.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            reportWarning("Unknown telemetry profile from NT: " + name, false);
+        }
+    }
+
+    /**
+     * Called by every LogKey write. WRITE_LOG if the value goes out (to the DataLog, and the delta state): the key's
+     * rate slot is up and delta mode doesn't drop it. WRITE_DASHBOARD if it goes to NT: the key is on the dashboard,
+     * its dashboard rate slot is up and there is a value NT hasn't had yet. 0 drops the write
+     */
+    static int publishTargets(LogKey key, boolean unchanged) {
+        if (key.isDetached()) return 0;
+        if (key.settingsChanged) applySettings(key);
+
+        int targets = 0;
+        if (loopCount < key.nextWriteLoop) {
+            decimatedWrites.increment();
+        } else {
+            // no division here, the roboRIO's Cortex-A9 has no hardware divide
+            boolean keyframe = keyframePeriodLoops > 0 && loopCount >= key.nextKeyframeLoop;
+            if (unchanged && deltaMode && !keyframe) {
+                // the slot stays open, so a change later in the period still goes out right away
+                suppressedWrites.increment();
+            } else {
+                key.hasValue = true;
+                key.nextWriteLoop = loopCount + key.rate.periodLoops;
+                key.nextKeyframeLoop = loopCount + keyframePeriodLoops;
+                key.dashboardPending = true;
+                publishedWrites.increment();
+                targets = WRITE_LOG;
+            }
+        }
+
+        // a value that went out between dashboard slots is sent on the next one, even if it has stopped changing
+        if (key.publisherOpen && key.dashboardPending && loopCount >= key.nextDashboardLoop) {
+            key.dashboardPending = false;
+            key.nextDashboardLoop = loopCount + key.dashboardRate.periodLoops;
+            targets |= WRITE_DASHBOARD;
+        }
+        return targets;
+    }
+
+    static void applyRate(LogKey key, LogRate rate, boolean fromRule) {
+        if (rate == null) {
+            reportWarning("Cannot set a null LogRate", true);
+            return;
+        }
+
+        key.rate = rate;
+        key.rateFromRule = fromRule;
+        key.restagger = true;
+        key.settingsChanged = true;
+    }
+
+    static void applyDashboardRate(LogKey key, LogRate rate, boolean fromRule) {
+        if (rate == null) {
+            reportWarning("Cannot set a null dashboard LogRate", true);
+            return;
+        }
+
+        key.dashboardRate = rate;
+        key.dashboardRateFromRule = fromRule;
+        key.restagger = true;
+        key.settingsChanged = true;
+    }
+
+    static void applyDashboard(LogKey key, boolean publish, boolean fromRule) {
+        if (key.isDetached()) return; // the path's NT topic belongs to the other key
+
+        key.dashboard = publish;
+        key.dashboardFromRule = fromRule;
+        key.settingsChanged = true;
+    }
+
+    /**
+     * Pick up the rate and dashboard changes requested through applyRate/applyDashboard, on the publishing thread so
+     * the key's state and publisher only ever have one writer. Takes effect on the key's next write
+     */
+    private static void applySettings(LogKey key) {
+        // cleared first, so a change requested while this runs is picked up on the next write
+        key.settingsChanged = false;
+        if (key.restagger) {
+            key.restagger = false;
+            // start each key on a different loop of its period so slow keys don't all publish on the same cycle
+            key.nextWriteLoop = loopCount + (staggerCounter % key.rate.periodLoops);
+            key.nextDashboardLoop = loopCount + (staggerCounter % key.dashboardRate.periodLoops);
+            staggerCounter++;
+        }
+        key.publisherOpen = key.dashboard;
+        key.openPublisher(key.publisherOpen);
+    }
+
+    /**
+     * Longest prefix rule matching path, or null if none do
+     */
+    private static <T> T resolveRule(Map<String, T> rules, String path) {
+        T best = null;
+        int bestLength = -1;
+        for (Entry<String, T> rule : rules.entrySet()) {
+            if (path.startsWith(rule.getKey()) && rule.getKey().length() > bestLength) {
+                best = rule.getValue();
+                bestLength = rule.getKey().length();
+            }
+        }
+        return best;
+    }
+
+    private interface KeyFactory<K extends LogKey> {
+        /**
+         * log is null for a key without a DataLog entry, e.g. a detached one (see LogKey.isDetached)
+         */
+        K create(DataLog log, String path);
+    }
+
+    private static <K extends LogKey> K createKey(String normalized, KeyFactory<K> factory) {
+        K created = factory.create(dataLog, normalized);
+        LogRate rate = resolveRule(rateRules, normalized);
+        if (rate != null) applyRate(created, rate, true);
+        Boolean publish = resolveRule(dashboardRules, normalized);
+        applyDashboard(created, publish == null || publish, publish != null);
+        LogRate dashboardRate = resolveRule(dashboardRateRules, normalized);
+        if (dashboardRate != null) applyDashboardRate(created, dashboardRate, true);
+        return created;
     }
 
     /**
@@ -57,322 +641,295 @@ public class Logger {
     }
 
     /**
-     * Report a warning and log it to the console
+     * Report a warning and log it to the console. Repeats from the same call site are summarized, see report
      */
     public static void reportWarning(String msg, boolean printFullTrace) {
-        reportWarning(msg, generateStackTrace(Thread.currentThread().getStackTrace(), 2), printFullTrace);
+        report("Warning", msg, findCallSite(), null, printFullTrace);
     }
 
     /**
-     * Report a warning and log it to the console
+     * Report a warning and log it to the console. Repeats from the same call site are summarized, see report
      */
     public static void reportWarning(Exception e, boolean printFullTrace) {
         if (e == null) {
             reportWarning("Unknown warning exception, attempted to log null Exception", true);
         } else {
-            reportWarning(e.getMessage(), generateStackTrace(e.getStackTrace(), 0), printFullTrace);
+            StackTraceElement[] trace = e.getStackTrace();
+            report("Warning", e.getMessage(), firstUserFrame(trace), trace, printFullTrace);
         }
     }
 
-    private static void reportWarning(String msg, StackTrace trace, boolean printFullTrace) {
+    /**
+     * Report an error and log it to the console. Repeats from the same call site are summarized, see report
+     */
+    public static void reportError(String msg) {
+        report("Error", msg, findCallSite(), null, true);
+    }
+
+    /**
+     * Report an error and log it to the console. Repeats from the same call site are summarized, see report
+     */
+    public static void reportError(Exception e) {
+        if (e == null) {
+            reportError("Unknown error exception, attempted to log null Exception");
+        } else {
+            StackTraceElement[] trace = e.getStackTrace();
+            report("Error", e.getMessage(), firstUserFrame(trace), trace, true);
+        }
+    }
+
+    /**
+     * The first report from a call site is printed in full. After that the site prints at most one line per
+     * REPORT_SUMMARY_PERIOD_US saying how many more times it fired, so a warning inside a periodic doesn't flood the
+     * log 50 times a second. Only the frames up to the call site are walked unless a full trace is actually printed.
+     *
+     * trace is the exception's stack trace, or null to capture the caller's stack if needed
+     */
+    private static void report(
+            String kind, String msg, StackTraceElement site, StackTraceElement[] trace, boolean printFullTrace) {
         // safe because of short circuit logic evalutation
         if (msg == null || msg.isEmpty()) msg = "No message provided";
-        if (trace == null) {
-            trace = new StackTrace();
-            trace.location = "Invalid StackTrace";
-            trace.trace = "Invalid StackTrace";
-        }
-        if (trace.location == null) {
-            trace.location = "Invalid StackTrace.location";
-        }
-        if (trace.trace == null) {
-            trace.trace = "Invalid StackTrace.trace";
+        String location = site == null ? "Invalid StackTrace" : site.toString();
+
+        if (site != null) {
+            long now = WPIUtilJNI.now();
+            synchronized (reportSites) {
+                ReportSite state = reportSites.get(site);
+                if (state != null) {
+                    state.lastMessage = msg;
+                    state.suppressed++;
+                    if (now - state.lastPrintedUs < REPORT_SUMMARY_PERIOD_US) return;
+
+                    printSummary(site, state);
+                    state.lastPrintedUs = now;
+                    return;
+                }
+
+                if (reportSites.size() < MAX_REPORT_SITES) {
+                    reportSites.put(site, new ReportSite(kind, msg, now));
+                }
+            }
         }
 
         StringBuilder builder = new StringBuilder();
-        builder.append("Warning at ");
-        builder.append(trace.location);
+        builder.append(kind);
+        builder.append(" at ");
+        builder.append(location);
         builder.append(": ");
         builder.append(msg);
 
         if (printFullTrace) {
+            if (trace == null) trace = captureCallerTrace();
             builder.append('\n');
-            builder.append(trace.trace);
+            builder.append(formatTrace(trace));
         }
 
         println(builder.toString());
     }
 
     /**
-     * Report an error and log it to the console
+     * Print the summary of every call site with unreported repeats. Called by flush
      */
-    public static void reportError(String msg) {
-        reportError(msg, generateStackTrace(Thread.currentThread().getStackTrace(), 2));
+    private static void printPendingSummaries() {
+        long now = WPIUtilJNI.now();
+        synchronized (reportSites) {
+            for (Entry<StackTraceElement, ReportSite> entry : reportSites.entrySet()) {
+                if (entry.getValue().suppressed == 0) continue;
+
+                printSummary(entry.getKey(), entry.getValue());
+                entry.getValue().lastPrintedUs = now;
+            }
+        }
+    }
+
+    private static void printSummary(StackTraceElement site, ReportSite state) {
+        println(state.kind + " at " + site + ": " + state.lastMessage + " (repeated " + state.suppressed
+                + " more times since last reported)");
+        state.suppressed = 0;
     }
 
     /**
-     * Report an error and log it to the console
+     * Get (or create) a pre-resolved boolean key. Intended to be called once, e.g. in a subsystem constructor
      */
-    public static void reportError(Exception e) {
-        if (e == null) {
-            reportError("Unknown error exception, attempted to log null Exception");
-        } else {
-            reportError(e.getMessage(), generateStackTrace(e.getStackTrace(), 0));
-        }
+    public static LogKey.BooleanKey booleanKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.BooleanKey.class, BOOLEAN_FACTORY, "boolean");
     }
 
-    private static void reportError(String msg, StackTrace trace) {
-        if (msg == null || msg.isEmpty()) msg = "No message provided";
-        if (trace == null) {
-            trace = new StackTrace();
-            trace.location = "Invalid StackTrace";
-            trace.trace = "Invalid StackTrace";
-        }
-        if (trace.location == null) {
-            trace.location = "Invalid StackTrace.location";
-        }
-        if (trace.trace == null) {
-            trace.trace = "Invalid StackTrace.trace";
-        }
+    public static LogKey.BooleanArrayKey booleanArrayKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.BooleanArrayKey.class, BOOLEAN_ARRAY_FACTORY, "boolean[]");
+    }
 
-        StringBuilder builder = new StringBuilder();
-        builder.append("Error at ");
-        builder.append(trace.location);
-        builder.append(": ");
-        builder.append(msg);
-        builder.append('\n');
-        builder.append(trace.trace);
+    public static LogKey.DoubleKey doubleKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.DoubleKey.class, DOUBLE_FACTORY, "double");
+    }
 
-        println(builder.toString());
+    /**
+     * A double key that only ever goes to NT, never the DataLog, for dashboard views of values logged elsewhere (see
+     * DashboardStream). Same key as doubleKey if the path is already registered
+     */
+    static LogKey.DoubleKey dashboardDoubleKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.DoubleKey.class, DASHBOARD_DOUBLE_FACTORY, "double");
     }
 
-    public static void log(String subsystem, String key, boolean val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
+    public static LogKey.DoubleArrayKey doubleArrayKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.DoubleArrayKey.class, DOUBLE_ARRAY_FACTORY, "double[]");
+    }
+
+    public static LogKey.FloatKey floatKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.FloatKey.class, FLOAT_FACTORY, "float");
+    }
+
+    public static LogKey.FloatArrayKey floatArrayKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.FloatArrayKey.class, FLOAT_ARRAY_FACTORY, "float[]");
+    }
+
+    public static LogKey.IntegerKey integerKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.IntegerKey.class, INTEGER_FACTORY, "int");
+    }
+
+    public static LogKey.IntegerArrayKey integerArrayKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.IntegerArrayKey.class, INTEGER_ARRAY_FACTORY, "int[]");
+    }
+
+    public static LogKey.RawKey rawKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.RawKey.class, RAW_FACTORY, "raw");
+    }
+
+    public static LogKey.StringKey stringKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.StringKey.class, STRING_FACTORY, "String");
+    }
+
+    public static LogKey.StringArrayKey stringArrayKey(String subsystem, String key) {
+        return registerKey(subsystem, key, LogKey.StringArrayKey.class, STRING_ARRAY_FACTORY, "String[]");
+    }
+
+    /**
+     * Get (or create) a key that publishes values serialized by struct, e.g. MotorTelemetry.struct
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LogKey.StructKey<T> structKey(String subsystem, String key, Struct<T> struct) {
+        if (struct == null) {
+            reportWarning("Cannot register a struct key with a null Struct", true);
+            return null;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setBoolean(val)) {
+        KeyFactory<LogKey.StructKey<T>> factory = (log, path) -> new LogKey.StructKey<>(nt, log, path, struct);
+        LogKey.StructKey<T> handle = registerKey(
+                subsystem, key, (Class<LogKey.StructKey<T>>) (Class<?>) LogKey.StructKey.class, factory, "struct");
+        if (!handle.getType().equals(struct.getTypeString())) {
             reportWarning(
-                    "attempted to log boolean value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
+                    "attempted to register " + struct.getTypeString() + " key for entry '" + key + "' of type "
+                            + handle.getType(),
                     true);
+            LogKey.StructKey<T> detached = factory.create(null, handle.getPath());
+            detached.detach();
+            return detached;
         }
+
+        return handle;
+    }
+
+    public static void log(String subsystem, String key, boolean val) {
+        LogKey.BooleanKey handle = lookupKey(subsystem, key, LogKey.BooleanKey.class, BOOLEAN_FACTORY, "boolean");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, boolean[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null boolean[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setBooleanArray(val)) {
-            reportWarning(
-                    "attempted to log boolean[] value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.BooleanArrayKey handle =
+                lookupKey(subsystem, key, LogKey.BooleanArrayKey.class, BOOLEAN_ARRAY_FACTORY, "boolean[]");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, double val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
-
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setDouble(val)) {
-            reportWarning(
-                    "attempted to log double value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.DoubleKey handle = lookupKey(subsystem, key, LogKey.DoubleKey.class, DOUBLE_FACTORY, "double");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, double[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null double[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setDoubleArray(val)) {
-            reportWarning(
-                    "attempted to log double[] value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.DoubleArrayKey handle =
+                lookupKey(subsystem, key, LogKey.DoubleArrayKey.class, DOUBLE_ARRAY_FACTORY, "double[]");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, float val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
-
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setFloat(val)) {
-            reportWarning(
-                    "attempted to log float value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.FloatKey handle = lookupKey(subsystem, key, LogKey.FloatKey.class, FLOAT_FACTORY, "float");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, float[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null float[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setFloatArray(val)) {
-            reportWarning(
-                    "attempted to log float[] value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.FloatArrayKey handle =
+                lookupKey(subsystem, key, LogKey.FloatArrayKey.class, FLOAT_ARRAY_FACTORY, "float[]");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, long val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
-
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setInteger(val)) {
-            reportWarning(
-                    "attempted to log int value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.IntegerKey handle = lookupKey(subsystem, key, LogKey.IntegerKey.class, INTEGER_FACTORY, "int");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, long[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null long[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setIntegerArray(val)) {
-            reportWarning(
-                    "attempted to log int[] value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.IntegerArrayKey handle =
+                lookupKey(subsystem, key, LogKey.IntegerArrayKey.class, INTEGER_ARRAY_FACTORY, "int[]");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, ByteBuffer val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null ByteBuffer", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setRaw(val)) {
-            reportWarning(
-                    "attempted to log raw value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.RawKey handle = lookupKey(subsystem, key, LogKey.RawKey.class, RAW_FACTORY, "raw");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, byte[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null byte[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setRaw(val)) {
-            reportWarning(
-                    "attempted to log raw value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.RawKey handle = lookupKey(subsystem, key, LogKey.RawKey.class, RAW_FACTORY, "raw");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, String val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
-        if (val == null) val = "";
-
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setString(val)) {
-            reportWarning(
-                    "attempted to log String value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.StringKey handle = lookupKey(subsystem, key, LogKey.StringKey.class, STRING_FACTORY, "String");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, String[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null String[]", true);
             return;
         }
 
-        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
-        if (!nt.getEntry(normalized).setStringArray(val)) {
-            reportWarning(
-                    "attempted to log String[] value to entry '" + key + "' of type "
-                            + nt.getEntry(normalized).getType().getValueStr(),
-                    true);
-        }
+        LogKey.StringArrayKey handle =
+                lookupKey(subsystem, key, LogKey.StringArrayKey.class, STRING_ARRAY_FACTORY, "String[]");
+        if (handle != null) handle.set(val);
     }
 
     public static void log(String subsystem, String key, Enum<?> val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null Enum", true);
             return;
@@ -382,118 +939,73 @@ public class Logger {
     }
 
     public static void log(String subsystem, String key, Enum<?>[] val) {
-        if (subsystem == null) subsystem = "";
-        if (key == null) {
-            reportWarning("Cannot log to an empty key", true);
-            return;
-        }
         if (val == null) {
             reportWarning("Cannot log a null Enum[]", true);
             return;
         }
 
-        log(subsystem, key, (String[])
-                Arrays.stream(val).map((Enum<?> i) -> i == null ? "" : i.name()).toArray());
+        log(subsystem, key, Arrays.stream(val).map((Enum<?> i) -> i == null ? "" : i.name()).toArray(String[]::new));
+    }
+
+    public static void log(String subsystem, String name, TalonFX motor) {
+        log(subsystem, name, motor, null);
     }
 
-    public static void log(String subsystem, String name, TalonFX motor, Optional<Map<String, String>> additionalData) {
+    /**
+     * Log a TalonFX plus any extra fields (may be null) under subsystem/name
+     */
+    public static void log(String subsystem, String name, TalonFX motor, LogFields fields) {
+        if (motor == null) {
+            reportWarning("Cannot log a null TalonFX", true);
+            return;
+        }
+
+        log(subsystem, name, TalonFXSignals.of(motor), fields);
+    }
+
+    public static void log(String subsystem, String name, TalonFXSignals signals) {
+        log(subsystem, name, signals, null);
+    }
+
+    /**
+     * Log a TalonFX from its batched signal snapshot, TalonFXSignals.refreshAll must be called earlier in the loop
+     */
+    public static void log(String subsystem, String name, TalonFXSignals signals, LogFields fields) {
         if (subsystem == null) subsystem = "";
         if (name == null || name.isEmpty()) {
             reportWarning("Cannot log under an empty name", true);
             return;
         }
-        if (motor == null) {
-            reportWarning("Cannot log a null TalonFX", true);
+        if (signals == null) {
+            reportWarning("Cannot log null TalonFXSignals", true);
             return;
         }
 
-        String root = subsystem + "/" + name;
-
-        TalonFXFaults activeFaults = TalonFXUtils.getAllActiveFaults(motor);
-        TalonFXFaults stickyFaults = TalonFXUtils.getAllStickyFaults(motor);
-
-        log(root, "positionRots", motor.getPosition().getValue().abs(Units.Rotations));
-        log(root, "velocityRPM", motor.getVelocity().getValue().abs(Units.RPM));
-        log(root, "tempC", motor.getDeviceTemp().getValue().abs(Units.Celsius));
-        log(root, "dutyCycle", motor.get());
-        log(root, "voltageOut", motor.getMotorVoltage().getValue().abs(Units.Volts));
-        log(root, "voltageIn", motor.getSupplyVoltage().getValue().abs(Units.Volts));
-        log(root, "hardStopForward", activeFaults.forwardHardLimit());
-        log(root, "hardStopReverse", activeFaults.reverseHardLimit());
-        log(root, "softStopForward", activeFaults.forwardSoftLimit());
-        log(root, "softStopReverse", activeFaults.reverseSoftLimit());
-        log(root, "currentOut", motor.getStatorCurrent().getValue().abs(Units.Amps));
-        log(root, "currentIn", motor.getSupplyCurrent().getValue().abs(Units.Amps));
-        log(root, "controlMode", motor.getControlMode().getValue());
-        log(root, "targetRots", motor.getClosedLoopReference().getValue().doubleValue());
-        log(root, "enabled", motor.getDeviceEnable().getValue() == DeviceEnableValue.Enabled);
-        log(root, "connected", motor.isConnected());
-        log(root, "alive", motor.isAlive());
-
-        log(root + "/faults", "bootDuringEnable", activeFaults.bootDuringEnable());
-        log(root + "/faults", "bridgeBrownout", activeFaults.bridgeBrownout());
-        log(root + "/faults", "deviceTemp", activeFaults.deviceTemp());
-        log(root + "/faults", "forwardHardLimit", activeFaults.forwardHardLimit());
-        log(root + "/faults", "fowardSoftLimit", activeFaults.forwardSoftLimit());
-        log(root + "/faults", "fusedSensorOutOfSync", activeFaults.fusedSensorOutOfSync());
-        log(root + "/faults", "hardware", activeFaults.hardware());
-        log(root + "/faults", "missingDifferentialFX", activeFaults.missingDifferentialFX());
-        log(root + "/faults", "missingHardLimitRemote", activeFaults.missingHardLimitRemote());
-        log(root + "/faults", "missingSoftLimitRemote", activeFaults.missingSoftLimitRemote());
-        log(root + "/faults", "overSupplyV", activeFaults.overSupplyV());
-        log(root + "/faults", "procTemp", activeFaults.procTemp());
-        log(root + "/faults", "remoteSensorDataInvalid", activeFaults.remoteSensorDataInvalid());
-        log(root + "/faults", "remoteSensorPosOverflow", activeFaults.remoteSensorPosOverflow());
-        log(root + "/faults", "remoteSensorReset", activeFaults.remoteSensorReset());
-        log(root + "/faults", "reverseHardLimit", activeFaults.reverseHardLimit());
-        log(root + "/faults", "reverseSoftLimit", activeFaults.reverseSoftLimit());
-        log(root + "/faults", "staticBrakeDisabled", activeFaults.staticBrakeDisabled());
-        log(root + "/faults", "statorCurrLimit", activeFaults.statorCurrLimit());
-        log(root + "/faults", "supplyCurrLimit", activeFaults.supplyCurrLimit());
-        log(root + "/faults", "undervoltage", activeFaults.undervoltage());
-        log(root + "/faults", "unlicensedFeatureInUse", activeFaults.unlicensedFeatureInUse());
-        log(root + "/faults", "unstableSupplyV", activeFaults.unstableSupplyV());
-        log(root + "/faults", "usingFusedCANCoderWhileUnlicensed", activeFaults.usingFusedCANCoderWhileUnlicensed());
-        log(root, "criticalFaultsActive", activeFaults.hasCriticalFaults());
-
-        log(root + "/stickyFaults", "bootDuringEnable", stickyFaults.bootDuringEnable());
-        log(root + "/stickyFaults", "bridgeBrownout", stickyFaults.bridgeBrownout());
-        log(root + "/stickyFaults", "deviceTemp", stickyFaults.deviceTemp());
-        log(root + "/stickyFaults", "forwardHardLimit", stickyFaults.forwardHardLimit());
-        log(root + "/stickyFaults", "fowardSoftLimit", stickyFaults.forwardSoftLimit());
-        log(root + "/stickyFaults", "fusedSensorOutOfSync", stickyFaults.fusedSensorOutOfSync());
-        log(root + "/stickyFaults", "hardware", stickyFaults.hardware());
-        log(root + "/stickyFaults", "missingDifferentialFX", stickyFaults.missingDifferentialFX());
-        log(root + "/stickyFaults", "missingHardLimitRemote", stickyFaults.missingHardLimitRemote());
-        log(root + "/stickyFaults", "missingSoftLimitRemote", stickyFaults.missingSoftLimitRemote());
-        log(root + "/stickyFaults", "overSupplyV", stickyFaults.overSupplyV());
-        log(root + "/stickyFaults", "procTemp", stickyFaults.procTemp());
-        log(root + "/stickyFaults", "remoteSensorDataInvalid", stickyFaults.remoteSensorDataInvalid());
-        log(root + "/stickyFaults", "remoteSensorPosOverflow", stickyFaults.remoteSensorPosOverflow());
-        log(root + "/stickyFaults", "remoteSensorReset", stickyFaults.remoteSensorReset());
-        log(root + "/stickyFaults", "reverseHardLimit", stickyFaults.reverseHardLimit());
-        log(root + "/stickyFaults", "reverseSoftLimit", stickyFaults.reverseSoftLimit());
-        log(root + "/stickyFaults", "staticBrakeDisabled", stickyFaults.staticBrakeDisabled());
-        log(root + "/stickyFaults", "statorCurrLimit", stickyFaults.statorCurrLimit());
-        log(root + "/stickyFaults", "supplyCurrLimit", stickyFaults.supplyCurrLimit());
-        log(root + "/stickyFaults", "undervoltage", stickyFaults.undervoltage());
-        log(root + "/stickyFaults", "unlicensedFeatureInUse", stickyFaults.unlicensedFeatureInUse());
-        log(root + "/stickyFaults", "unstableSupplyV", stickyFaults.unstableSupplyV());
-        log(
-                root + "/stickyFaults",
-                "usingFusedCANCoderWhileUnlicensed",
-                stickyFaults.usingFusedCANCoderWhileUnlicensed());
-        log(root, "criticalStickyFaultsActive", stickyFaults.hasCriticalFaults());
-
-        if (additionalData != null && additionalData.isPresent()) {
-            for (Entry<String, String> data : additionalData.get().entrySet()) {
-                log(root, data.getKey(), data.getValue());
+        MotorKeys keys = getMotorKeys(subsystem, name);
+        synchronized (keys) {
+            if (LogReplay.isActive() && LogReplay.readMotor(keys.root, keys.telemetry)) {
+                // the subsystem reads the replayed sensor values through its signals too. The outputs are the ones the
+                // replayed code commanded, not the recorded ones
+                signals.replayFrom(keys.telemetry);
+                keys.telemetry.updateOutputs(signals);
+            } else {
+                keys.telemetry.update(signals);
             }
+            keys.key.set(keys.telemetry);
+            keys.publishSummary();
         }
+
+        if (fields != null) fields.write(keys.root);
     }
 
-    public static void log(
-            String subsystem, String name, SparkMax motor, Optional<Map<String, String>> additionalData) {
+    public static void log(String subsystem, String name, SparkMax motor) {
+        log(subsystem, name, motor, null);
+    }
+
+    /**
+     * Log a SparkMax plus any extra fields (may be null) under subsystem/name
+     */
+    public static void log(String subsystem, String name, SparkMax motor, LogFields fields) {
         if (subsystem == null) subsystem = "";
         if (name == null || name.isEmpty()) {
             reportWarning("Cannot log under an empty name", true);
@@ -504,68 +1016,53 @@ public class Logger {
             return;
         }
 
-        String root = subsystem + "/" + name;
-
-        Faults activeFaults = motor.getFaults();
-        Faults stickyFaults = motor.getStickyFaults();
-        Warnings activeWarnings = motor.getWarnings();
-        Warnings stickyWarnings = motor.getStickyWarnings();
-
-        log(root, "positionRots", motor.getEncoder().getPosition());
-        log(root, "velocityRPM", motor.getEncoder().getVelocity());
-        log(root, "tempC", motor.getMotorTemperature());
-        log(root, "dutyCycle", motor.getAppliedOutput());
-        log(root, "voltageOut", motor.getAppliedOutput() * motor.getBusVoltage());
-        log(root, "voltageIn", motor.getBusVoltage());
-        log(root, "hardStopForward", motor.getForwardLimitSwitch().isPressed());
-        log(root, "hardStopReverse", motor.getReverseLimitSwitch().isPressed());
-        log(root, "currentOut", motor.getOutputCurrent());
-        log(root, "connected", SparkMaxUtils.isConnected(motor));
-
-        log(root + "/faults", "can", activeFaults.can);
-        log(root + "/faults", "escEeprom", activeFaults.escEeprom);
-        log(root + "/faults", "firmware", activeFaults.firmware);
-        log(root + "/faults", "gateDriver", activeFaults.gateDriver);
-        log(root + "/faults", "motorType", activeFaults.motorType);
-        log(root + "/faults", "other", activeFaults.other);
-        log(root + "/faults", "sensor", activeFaults.sensor);
-        log(root + "/faults", "temperature", activeFaults.temperature);
-        log(root, "criticalFaultsActive", SparkMaxUtils.hasCriticalFaults(activeFaults));
-
-        log(root + "/stickyFaults", "can", stickyFaults.can);
-        log(root + "/stickyFaults", "escEeprom", stickyFaults.escEeprom);
-        log(root + "/stickyFaults", "firmware", stickyFaults.firmware);
-        log(root + "/stickyFaults", "gateDriver", stickyFaults.gateDriver);
-        log(root + "/stickyFaults", "motorType", stickyFaults.motorType);
-        log(root + "/stickyFaults", "other", stickyFaults.other);
-        log(root + "/stickyFaults", "sensor", stickyFaults.sensor);
-        log(root + "/stickyFaults", "temperature", stickyFaults.temperature);
-        log(root, "criticalStickyFaultsActive", SparkMaxUtils.hasCriticalFaults(stickyFaults));
-
-        log(root + "/warnings", "brownout", activeWarnings.brownout);
-        log(root + "/warnings", "escEeprom", activeWarnings.escEeprom);
-        log(root + "/warnings", "extEeprom", activeWarnings.extEeprom);
-        log(root + "/warnings", "hasReset", activeWarnings.hasReset);
-        log(root + "/warnings", "other", activeWarnings.other);
-        log(root + "/warnings", "overcurrent", activeWarnings.overcurrent);
-        log(root + "/warnings", "sensor", activeWarnings.sensor);
-        log(root + "/warnings", "stall", activeWarnings.stall);
-        log(root, "criticalWarningsActive", SparkMaxUtils.hasCriticalWarnings(activeWarnings));
-
-        log(root + "/stickyWarnings", "brownout", stickyWarnings.brownout);
-        log(root + "/stickyWarnings", "escEeprom", stickyWarnings.escEeprom);
-        log(root + "/stickyWarnings", "extEeprom", stickyWarnings.extEeprom);
-        log(root + "/stickyWarnings", "hasReset", stickyWarnings.hasReset);
-        log(root + "/stickyWarnings", "other", stickyWarnings.other);
-        log(root + "/stickyWarnings", "overcurrent", stickyWarnings.overcurrent);
-        log(root + "/stickyWarnings", "sensor", stickyWarnings.sensor);
-        log(root + "/stickyWarnings", "stall", stickyWarnings.stall);
-        log(root, "criticalStickyWarningsActive", SparkMaxUtils.hasCriticalWarnings(stickyWarnings));
-
-        if (additionalData != null && additionalData.isPresent()) {
-            for (Entry<String, String> data : additionalData.get().entrySet()) {
-                log(root, data.getKey(), data.getValue());
+        MotorKeys keys = getMotorKeys(subsystem, name);
+        synchronized (keys) {
+            if (LogReplay.isActive() && LogReplay.readMotor(keys.root, keys.telemetry)) {
+                keys.telemetry.updateOutputs(motor); // as for a TalonFX
+            } else {
+                keys.telemetry.update(motor);
             }
+            keys.key.set(keys.telemetry);
+            keys.publishSummary();
+        }
+
+        if (fields != null) fields.write(keys.root);
+    }
+
+    /**
+     * The snapshot subsystem/name was last logged from, refilled by every Logger.log of that motor. Read it after
+     * logging instead of asking the controller again, it costs no CAN reads and is replayed along with the log
+     */
+    public static MotorTelemetry getTelemetry(String subsystem, String name) {
+        if (subsystem == null) subsystem = "";
+        if (name == null || name.isEmpty()) {
+            reportWarning("Cannot get telemetry of an empty name", true);
+            return new MotorTelemetry();
+        }
+
+        return getMotorKeys(subsystem, name).telemetry;
+    }
+
+    private static MotorKeys getMotorKeys(String subsystem, String name) {
+        Map<String, MotorKeys> subsystemMotors = motorKeys.get(subsystem);
+        MotorKeys keys = subsystemMotors == null ? null : subsystemMotors.get(name);
+        return keys != null ? keys : createMotorKeys(subsystem, name);
+    }
+
+    private static MotorKeys createMotorKeys(String subsystem, String name) {
+        synchronized (motorKeys) {
+            Map<String, MotorKeys> subsystemMotors =
+                    motorKeys.computeIfAbsent(subsystem, (key) -> new ConcurrentHashMap<>());
+            MotorKeys keys = subsystemMotors.get(name);
+            if (keys == null) {
+                keys = new MotorKeys(subsystem + "/" + name);
+                subsystemMotors.put(name, keys);
+                MotorKeys[] list = Arrays.copyOf(motorKeyList, motorKeyList.length + 1);
+                list[list.length - 1] = keys;
+                motorKeyList = list;
+            }
+            return keys;
         }
     }
 
@@ -591,36 +1088,207 @@ public class Logger {
         }
     }
 
-    private static class StackTrace {
-        public String location;
-        public String trace;
+    private static <K extends LogKey> K registerKey(
+            String subsystem, String key, Class<K> keyClass, KeyFactory<K> factory, String valueType) {
+        if (subsystem == null) subsystem = "";
+        if (key == null) {
+            reportWarning("Cannot register an empty key", true);
+            key = "";
+        }
+
+        String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
+        LogKey existing;
+        synchronized (keys) {
+            existing = keys.get(normalized);
+            if (existing == null) {
+                K created = createKey(normalized, factory);
+                keys.put(normalized, created);
+                return created;
+            }
+        }
+        if (!keyClass.isInstance(existing)) {
+            reportWarning(
+                    "attempted to register " + valueType + " key for entry '" + key + "' of type "
+                            + existing.getType(),
+                    true);
+            // hand back a detached key so callers never see null, without a second DataLog entry of another type
+            K detached = factory.create(null, normalized);
+            detached.detach();
+            return detached;
+        }
+
+        return keyClass.cast(existing);
     }
 
-    private static StackTrace generateStackTrace(StackTraceElement[] trace, int offset) {
-        // stole this code from DriverStation.class:494
-        String locString;
-        if (trace.length >= offset + 1) {
-            locString = trace[offset].toString();
-        } else {
-            locString = "";
+    private static <K extends LogKey> K lookupKey(
+            String subsystem, String key, Class<K> keyClass, KeyFactory<K> factory, String valueType) {
+        if (subsystem == null) subsystem = "";
+        if (key == null) {
+            reportWarning("Cannot log to an empty key", true);
+            return null;
         }
 
-        StringBuilder traceString = new StringBuilder();
-        boolean haveLoc = false;
-        for (int i = offset; i < trace.length; i++) {
-            String loc = trace[i].toString();
-            traceString.append("\tat ").append(loc).append('\n');
-
-            // get first user function
-            if (!haveLoc && !loc.startsWith("edu.wpi.first")) {
-                locString = loc;
-                haveLoc = true;
+        Map<String, LogKey> subsystemKeys = rawKeys.get(subsystem);
+        LogKey existing = subsystemKeys == null ? null : subsystemKeys.get(key);
+        if (existing == null) existing = cacheRawKey(subsystem, key, factory);
+        if (!keyClass.isInstance(existing)) {
+            reportWarning(
+                    "attempted to log " + valueType + " value to entry '" + key + "' of type " + existing.getType(),
+                    true);
+            return null;
+        }
+
+        return keyClass.cast(existing);
+    }
+
+    /**
+     * First string overload call for subsystem/key, normalizes the path once and remembers the key under the raw names
+     */
+    private static LogKey cacheRawKey(String subsystem, String key, KeyFactory<?> factory) {
+        synchronized (keys) {
+            String normalized = NetworkTable.normalizeKey(subsystem + "/" + key);
+            LogKey existing = keys.get(normalized);
+            if (existing == null) {
+                existing = createKey(normalized, factory);
+                keys.put(normalized, existing);
+            }
+            rawKeys.computeIfAbsent(subsystem, (name) -> new ConcurrentHashMap<>()).put(key, existing);
+            return existing;
+        }
+    }
+
+    private static synchronized void publishFaultSchemas() {
+        if (hasPublishedSchemas) return;
+
+        // bit i of each packed fault integer is named by element i of its schema
+        stringArrayKey("schema", "TalonFXFaults").set(TalonFXFaults.BIT_NAMES);
+        stringArrayKey("schema", "SparkMaxFaults").set(SparkMaxUtils.FAULT_NAMES);
+        stringArrayKey("schema", "SparkMaxWarnings").set(SparkMaxUtils.WARNING_NAMES);
+        hasPublishedSchemas = true;
+    }
+
+    /**
+     * One struct topic per motor plus the snapshot it is packed from. Lock on this while updating and setting so two
+     * threads logging the same motor don't interleave
+     */
+    private static class MotorKeys {
+        public final String root;
+        public final LogKey.StructKey<MotorTelemetry> key;
+        public final MotorTelemetry telemetry = new MotorTelemetry();
+        // latest values for readers on other threads (MetricsServer), see forEachMotor
+        public volatile double tempC = Double.NaN, currentOut = Double.NaN, currentIn = Double.NaN;
+        public volatile boolean connected = false;
+
+        public MotorKeys(String root) {
+            this.root = root;
+            key = structKey(root, "telemetry", MotorTelemetry.struct);
+            publishFaultSchemas();
+        }
+
+        public void publishSummary() {
+            tempC = telemetry.tempC;
+            currentOut = telemetry.currentOut;
+            currentIn = telemetry.currentIn;
+            connected = telemetry.connected;
+        }
+    }
+
+    interface MotorSummarySink {
+        void accept(String root, double tempC, double currentOut, double currentIn, boolean connected);
+    }
+
+    /**
+     * Latest temperature, currents and connection of every motor logged so far. Safe from any thread, never waits on a
+     * lock the main loop uses
+     */
+    static void forEachMotor(MotorSummarySink sink) {
+        for (MotorKeys keys : motorKeyList) {
+            sink.accept(keys.root, keys.tempC, keys.currentOut, keys.currentIn, keys.connected);
+        }
+    }
+
+    /**
+     * Number of motors logged so far. Motors are only ever appended, so an index keeps naming the same motor
+     */
+    static int getMotorCount() {
+        return motorKeyList.length;
+    }
+
+    static String getMotorRoot(int index) {
+        return motorKeyList[index].root;
+    }
+
+    /**
+     * Rate of a motor's telemetry struct, its snapshot (getMotorTelemetry) is still refreshed every loop
+     */
+    static void setMotorLogRate(int index, LogRate rate) {
+        motorKeyList[index].key.setRate(rate);
+    }
+
+    /**
+     * The live snapshot of a motor, main thread only (the thread that logs it)
+     */
+    static MotorTelemetry getMotorTelemetry(int index) {
+        return motorKeyList[index].telemetry;
+    }
+
+    private static class ReportSite {
+        public final String kind;
+        public String lastMessage;
+        public long lastPrintedUs;
+        public int suppressed = 0;
+
+        public ReportSite(String kind, String lastMessage, long lastPrintedUs) {
+            this.kind = kind;
+            this.lastMessage = lastMessage;
+            this.lastPrintedUs = lastPrintedUs;
+        }
+    }
+
+    /**
+     * First frame outside the logging classes and WPILib, without building the rest of the stack
+     */
+    private static StackTraceElement findCallSite() {
+        return STACK_WALKER.walk((frames) -> frames.filter((frame) -> !isInternalFrame(frame.getClassName()))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
+    }
+
+    /**
+     * Stack of whoever called reportWarning/reportError, for when a full trace is printed
+     */
+    private static StackTraceElement[] captureCallerTrace() {
+        return STACK_WALKER.walk((frames) -> frames.dropWhile((frame) -> isInternalFrame(frame.getClassName()))
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .toArray(StackTraceElement[]::new));
+    }
+
+    private static StackTraceElement firstUserFrame(StackTraceElement[] trace) {
+        for (StackTraceElement frame : trace) {
+            if (!isInternalFrame(frame.getClassName())) return frame;
+        }
+        return trace.length > 0 ? trace[0] : null;
+    }
+
+    private static boolean isInternalFrame(String className) {
+        if (className.startsWith("edu.wpi.first")) return true;
+        for (String internal : INTERNAL_CLASSES) {
+            // no substring, this runs for every frame of every report
+            if (className.startsWith(internal)
+                    && (className.length() == internal.length() || className.charAt(internal.length()) == '$')) {
+                return true;
             }
         }
+        return false;
+    }
 
-        StackTrace result = new StackTrace();
-        result.location = locString;
-        result.trace = traceString.toString();
-        return result;
+    private static String formatTrace(StackTraceElement[] trace) {
+        // stole this code from DriverStation.class:494
+        StringBuilder traceString = new StringBuilder();
+        for (StackTraceElement frame : trace) {
+            traceString.append("\tat ").append(frame).append('\n');
+        }
+        return traceString.toString();
     }
 }
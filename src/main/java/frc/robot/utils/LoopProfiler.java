@@ -0,0 +1,295 @@
+package frc.robot.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Times the phases of robotPeriodic (subsystem periodics, the scheduler, controllers...) into fixed-memory histograms
+ * and publishes p50/p99/max per phase once per window under profiler/. When a loop goes over budget the phase with the
+ * most self time is reported, so the loop-overrun warning says who ate the 20 ms.
+ *
+ * Phases can nest (subsystem periodics run inside the scheduler), a parent's self time excludes its children. Main
+ * thread only.
+ *
+ * With setAllocationTracking on, each phase and the whole loop also publish the average heap bytes the main thread
+ * allocated per loop, read from the JVM's per-thread allocation counter.
+ */
+public class LoopProfiler {
+
+    // 50 loops is one second at the default 20 ms period
+    private static final int WINDOW_LOOPS = 50;
+    // ~65 us buckets up to ~33 ms, anything slower only shows up in max
+    private static final int BUCKET_SHIFT = 16;
+    private static final int BUCKET_COUNT = 512;
+    private static final double NANOS_PER_MS = 1e6;
+
+    // copy on write, volatile for MetricsServer
+    private static volatile Phase[] phases = new Phase[0];
+    private static Phase current = null;
+
+    private static long budgetNanos = 20_000_000;
+    private static long loopStartNanos = 0;
+    private static int windowLoops = 0;
+    private static int windowOverruns = 0;
+    private static volatile long totalOverruns = 0;
+    private static String windowOverrunPhase = null;
+    // System.nanoTime span of the last loop that overran, for GcMonitor to match pauses against
+    private static volatile long lastOverrunStartNanos = 0, lastOverrunEndNanos = 0;
+    private static long lastLoopNanos = 0;
+
+    // allocation accounting, see setAllocationTracking. null if the JVM can't count per-thread allocations
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+    private static boolean trackAllocations = false;
+    private static long loopStartAllocated = 0;
+    private static long windowLoopAllocated = 0;
+
+    private static final TimingHistogram loopHistogram = new TimingHistogram(BUCKET_SHIFT, BUCKET_COUNT);
+    private static final WindowStats loopStats = new WindowStats();
+    private static final LogKey.DoubleKey loopP50Key = Logger.doubleKey("profiler/loop", "p50Ms"),
+            loopP99Key = Logger.doubleKey("profiler/loop", "p99Ms"),
+            loopMaxKey = Logger.doubleKey("profiler/loop", "maxMs");
+    private static final LogKey.IntegerKey overrunsKey = Logger.integerKey("profiler", "overruns");
+    private static final LogKey.StringKey overrunPhaseKey = Logger.stringKey("profiler", "overrunPhase");
+    private static final LogKey.IntegerKey loopAllocKey = Logger.integerKey("profiler/loop", "allocBytesPerLoop");
+
+    // prevent instantiating objects
+    private LoopProfiler() {}
+
+    public static final class Phase {
+        private final String name;
+        private final TimingHistogram histogram = new TimingHistogram(BUCKET_SHIFT, BUCKET_COUNT);
+        private final LogKey.DoubleKey p50Key, p99Key, maxKey;
+        private final LogKey.IntegerKey allocKey;
+        private final WindowStats stats = new WindowStats();
+
+        private Phase parent = null;
+        private long startNanos = 0;
+        private long childNanos = 0;
+        // self time during the current loop, 0 if the phase didn't run
+        private long loopSelfNanos = 0;
+        private long startAllocated = 0;
+        private long windowAllocated = 0;
+
+        private Phase(String name) {
+            this.name = name;
+            p50Key = Logger.doubleKey("profiler/" + name, "p50Ms");
+            p99Key = Logger.doubleKey("profiler/" + name, "p99Ms");
+            maxKey = Logger.doubleKey("profiler/" + name, "maxMs");
+            allocKey = Logger.integerKey("profiler/" + name, "allocBytesPerLoop");
+        }
+
+        public void start() {
+            parent = current;
+            current = this;
+            childNanos = 0;
+            if (trackAllocations) startAllocated = ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            long elapsed = System.nanoTime() - startNanos;
+            if (current != this) {
+                Logger.reportWarning("Profiler phase " + name + " stopped without being started", false);
+                return;
+            }
+            // includes the children, and the few bytes of the counter read itself
+            if (trackAllocations) windowAllocated += ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() - startAllocated;
+
+            current = parent;
+            if (parent != null) parent.childNanos += elapsed;
+            parent = null;
+
+            histogram.record(elapsed);
+            loopSelfNanos += elapsed - childNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Last published window, readable from any thread
+     */
+    static final class WindowStats {
+        volatile double p50Ms, p99Ms, maxMs;
+    }
+
+    /**
+     * Create a named phase, once, e.g. as a static field of the subsystem. Call start()/stop() around the work
+     */
+    public static Phase phase(String name) {
+        if (name == null || name.isEmpty()) {
+            Logger.reportWarning("Cannot create a profiler phase with an empty name", true);
+            name = "unnamed";
+        }
+
+        Phase phase = new Phase(name);
+        phases = Arrays.copyOf(phases, phases.length + 1);
+        phases[phases.length - 1] = phase;
+        return phase;
+    }
+
+    public static void setBudgetSeconds(double seconds) {
+        if (seconds <= 0) {
+            Logger.reportWarning("Loop budget must be positive", true);
+            return;
+        }
+
+        budgetNanos = (long) (seconds * 1e9);
+    }
+
+    /**
+     * Publish heap bytes allocated per loop for every phase. Reading the counter costs a little per start/stop, so this
+     * is off by default
+     */
+    public static void setAllocationTracking(boolean enabled) {
+        if (enabled && ALLOCATION_BEAN == null) {
+            Logger.reportWarning("This JVM can't count per-thread allocations, allocation tracking stays off", false);
+            return;
+        }
+
+        trackAllocations = enabled;
+    }
+
+    /**
+     * Total heap bytes the calling thread has allocated so far, or -1 if the JVM can't count them
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN == null ? -1 : ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Call first thing in robotPeriodic
+     */
+    public static void startLoop() {
+        for (Phase phase : phases) {
+            phase.loopSelfNanos = 0;
+        }
+        current = null;
+        if (trackAllocations) loopStartAllocated = ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+        loopStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Call last thing in robotPeriodic, after Logger.periodic so the logger's own time counts toward the loop
+     */
+    public static void endLoop() {
+        long now = System.nanoTime();
+        long elapsed = now - loopStartNanos;
+        lastLoopNanos = elapsed;
+        loopHistogram.record(elapsed);
+        if (trackAllocations) {
+            windowLoopAllocated += ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() - loopStartAllocated;
+        }
+
+        if (elapsed > budgetNanos) {
+            Phase slowest = null;
+            for (Phase phase : phases) {
+                if (slowest == null || phase.loopSelfNanos > slowest.loopSelfNanos) slowest = phase;
+            }
+
+            String slowestName = slowest == null ? "unknown" : slowest.name;
+            windowOverruns++;
+            totalOverruns++;
+            windowOverrunPhase = slowestName;
+            lastOverrunStartNanos = loopStartNanos;
+            lastOverrunEndNanos = now;
+            overrunPhaseKey.set(slowestName);
+            // repeats are summarized by the reporter, this won't flood the log
+            Logger.reportWarning(
+                    "Loop overran its budget (" + (elapsed / NANOS_PER_MS) + " ms), slowest phase: " + slowestName,
+                    false);
+        }
+
+        windowLoops++;
+        if (windowLoops >= WINDOW_LOOPS) publishWindow();
+    }
+
+    /**
+     * Duration of the loop endLoop last closed, main thread only
+     */
+    static long getLastLoopNanos() {
+        return lastLoopNanos;
+    }
+
+    static long getLastOverrunStartNanos() {
+        return lastOverrunStartNanos;
+    }
+
+    static long getLastOverrunEndNanos() {
+        return lastOverrunEndNanos;
+    }
+
+    static Phase[] getPhases() {
+        return phases;
+    }
+
+    static WindowStats getPhaseStats(Phase phase) {
+        return phase.stats;
+    }
+
+    static WindowStats getLoopStats() {
+        return loopStats;
+    }
+
+    static long getTotalOverruns() {
+        return totalOverruns;
+    }
+
+    private static void publishWindow() {
+        for (Phase phase : phases) {
+            publish(phase.histogram, phase.stats, phase.p50Key, phase.p99Key, phase.maxKey);
+        }
+        publish(loopHistogram, loopStats, loopP50Key, loopP99Key, loopMaxKey);
+        overrunsKey.set(totalOverruns);
+
+        if (trackAllocations) {
+            for (Phase phase : phases) {
+                phase.allocKey.set(phase.windowAllocated / windowLoops);
+            }
+            loopAllocKey.set(windowLoopAllocated / windowLoops);
+        }
+        for (Phase phase : phases) {
+            phase.windowAllocated = 0;
+        }
+        windowLoopAllocated = 0;
+
+        if (windowOverruns > 0) {
+            Alerts.loopOverrun.setText(
+                    "Loop overruns in the last second: " + windowOverruns + ", slowest phase: " + windowOverrunPhase);
+        }
+        Alerts.loopOverrun.set(windowOverruns > 0);
+
+        windowLoops = 0;
+        windowOverruns = 0;
+        windowOverrunPhase = null;
+    }
+
+    private static void publish(
+            TimingHistogram histogram,
+            WindowStats stats,
+            LogKey.DoubleKey p50Key,
+            LogKey.DoubleKey p99Key,
+            LogKey.DoubleKey maxKey) {
+        stats.p50Ms = histogram.getPercentileNanos(0.5) / NANOS_PER_MS;
+        stats.p99Ms = histogram.getPercentileNanos(0.99) / NANOS_PER_MS;
+        stats.maxMs = histogram.getMaxNanos() / NANOS_PER_MS;
+        p50Key.set(stats.p50Ms);
+        p99Key.set(stats.p99Ms);
+        maxKey.set(stats.maxMs);
+        histogram.reset();
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        if (!allocationBean.isThreadAllocatedMemorySupported()) return null;
+
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+    }
+}
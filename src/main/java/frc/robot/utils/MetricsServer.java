@@ -0,0 +1,184 @@
+package frc.robot.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.wpi.first.hal.can.CANStatus;
+import edu.wpi.first.wpilibj.RobotController;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves loop timing, per-phase (subsystem periodic, scheduler...) cost, Logger write counts, CAN bus health and
+ * per-motor temperature/current at http://<robot>:port/metrics in the Prometheus text format, so a pit laptop can
+ * scrape them without an NT client. In simulation, curl http://localhost:5805/metrics.
+ *
+ * Requests are answered on a low priority background thread from values the main loop already publishes (volatile
+ * fields in LoopProfiler and Logger), so a scrape never takes a lock the main loop uses. Off on the field: periodic
+ * stops the server once the FMS is attached, unless SERVE_WITH_FMS is set.
+ */
+public class MetricsServer {
+
+    // 5800-5810 are open for team use on the field network
+    public static final int DEFAULT_PORT = 5805;
+    // keep serving during matches, only for debugging a field issue
+    public static final boolean SERVE_WITH_FMS = false;
+
+    private static HttpServer server = null;
+    private static ExecutorService executor = null;
+    // so periodic doesn't take the lock every loop
+    private static volatile boolean running = false;
+
+    // prevent instantiating objects
+    private MetricsServer() {}
+
+    public static synchronized void start(int port) {
+        if (server != null) return;
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            Logger.reportWarning("Metrics server could not bind port " + port + ": " + e.getMessage(), false);
+            server = null;
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "MetricsServer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", MetricsServer::handle);
+        server.start();
+        running = true;
+        Logger.println("Serving metrics on port " + port);
+    }
+
+    /**
+     * Stop serving once the FMS is attached, unless SERVE_WITH_FMS. Call once per loop, restart the code to serve again
+     */
+    public static void periodic(boolean fmsAttached) {
+        if (!running || !fmsAttached || SERVE_WITH_FMS) return;
+
+        stop();
+        Logger.println("FMS attached, stopped serving metrics");
+    }
+
+    public static synchronized void stop() {
+        if (server == null) return;
+
+        server.stop(0);
+        executor.shutdown();
+        server = null;
+        executor = null;
+        running = false;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (RuntimeException e) {
+            Logger.reportWarning(e, false);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String render() {
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "robot_loop_time_ms", "gauge", "robotPeriodic time over the last profiler window");
+        LoopProfiler.WindowStats loop = LoopProfiler.getLoopStats();
+        windowStats(out, "robot_loop_time_ms", "", loop);
+
+        header(out, "robot_loop_overruns_total", "counter", "Loops that went over budget since startup");
+        sample(out, "robot_loop_overruns_total", "", LoopProfiler.getTotalOverruns());
+
+        header(out, "robot_phase_time_ms", "gauge", "Time of each profiled phase over the last window, with nesting");
+        for (LoopProfiler.Phase phase : LoopProfiler.getPhases()) {
+            String labels = "phase=\"" + escape(phase.getName()) + "\",";
+            windowStats(out, "robot_phase_time_ms", labels, LoopProfiler.getPhaseStats(phase));
+        }
+
+        header(out, "robot_logger_writes_total", "counter", "Logger key writes since startup, by outcome");
+        sample(out, "robot_logger_writes_total", "result=\"published\"", Logger.getPublishedWriteCount());
+        sample(out, "robot_logger_writes_total", "result=\"suppressed\"", Logger.getSuppressedWriteCount());
+        sample(out, "robot_logger_writes_total", "result=\"decimated\"", Logger.getDecimatedWriteCount());
+
+        CANStatus can = RobotController.getCANStatus();
+        header(out, "robot_can_bus_utilization", "gauge", "CAN bus utilization as reported by the HAL");
+        sample(out, "robot_can_bus_utilization", "", can.percentBusUtilization);
+        header(out, "robot_can_bus_off_total", "counter", "CAN bus off events reported by the HAL");
+        sample(out, "robot_can_bus_off_total", "", can.busOffCount);
+        header(out, "robot_can_tx_full_total", "counter", "CAN transmit buffer full events reported by the HAL");
+        sample(out, "robot_can_tx_full_total", "", can.txFullCount);
+        header(out, "robot_can_errors_total", "counter", "CAN error counters reported by the HAL");
+        sample(out, "robot_can_errors_total", "direction=\"receive\"", can.receiveErrorCount);
+        sample(out, "robot_can_errors_total", "direction=\"transmit\"", can.transmitErrorCount);
+
+        header(out, "robot_battery_volts", "gauge", "Battery voltage");
+        sample(out, "robot_battery_volts", "", RobotController.getBatteryVoltage());
+
+        header(out, "robot_motor_temperature_celsius", "gauge", "Motor temperature, as last logged");
+        Logger.forEachMotor((root, tempC, currentOut, currentIn, connected) ->
+                sample(out, "robot_motor_temperature_celsius", motorLabel(root), tempC));
+        header(out, "robot_motor_current_amps", "gauge", "Motor stator (out) and supply (in) current, as last logged");
+        Logger.forEachMotor((root, tempC, currentOut, currentIn, connected) -> {
+            sample(out, "robot_motor_current_amps", motorLabel(root) + ",side=\"out\"", currentOut);
+            sample(out, "robot_motor_current_amps", motorLabel(root) + ",side=\"in\"", currentIn);
+        });
+        header(out, "robot_motor_connected", "gauge", "1 if the motor controller is responding");
+        Logger.forEachMotor((root, tempC, currentOut, currentIn, connected) ->
+                sample(out, "robot_motor_connected", motorLabel(root), connected ? 1 : 0));
+
+        return out.toString();
+    }
+
+    private static void windowStats(StringBuilder out, String name, String labels, LoopProfiler.WindowStats stats) {
+        sample(out, name, labels + "stat=\"p50\"", stats.p50Ms);
+        sample(out, name, labels + "stat=\"p99\"", stats.p99Ms);
+        sample(out, name, labels + "stat=\"max\"", stats.maxMs);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String motorLabel(String root) {
+        return "motor=\"" + escape(root) + "\"";
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
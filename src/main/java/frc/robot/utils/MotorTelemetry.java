@@ -0,0 +1,216 @@
+package frc.robot.utils;
+
+import com.revrobotics.spark.SparkMax;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Snapshot of everything Logger records about one motor controller, published as a single struct topic instead of a
+ * topic per value. Fields a controller doesn't report (e.g. softStopForward on a SparkMax) are left at 0/false, and
+ * targetRots is NaN when there is no closed loop target.
+ *
+ * Mutable on purpose, Logger keeps one per motor and refills it every loop so nothing is allocated.
+ */
+public class MotorTelemetry implements StructSerializable {
+
+    public static final MotorTelemetryStruct struct = new MotorTelemetryStruct();
+
+    public double positionRots,
+            velocityRPM,
+            tempC,
+            dutyCycle,
+            voltageOut,
+            voltageIn,
+            currentOut,
+            currentIn,
+            targetRots;
+    // packed bitfields, named by the schema/ string arrays Logger publishes
+    public long faults, stickyFaults, warnings, stickyWarnings;
+    // ControlModeValue.value for a TalonFX, -1 for a SparkMax
+    public int controlMode;
+    public boolean connected,
+            alive,
+            enabled,
+            hardStopForward,
+            hardStopReverse,
+            softStopForward,
+            softStopReverse,
+            criticalFaultsActive,
+            criticalStickyFaultsActive,
+            criticalWarningsActive,
+            criticalStickyWarningsActive;
+
+    /**
+     * Refill from a TalonFX's batched signal snapshot, TalonFXSignals.refreshAll must be called earlier in the loop
+     */
+    public void update(TalonFXSignals signals) {
+        positionRots = signals.getPositionRots();
+        velocityRPM = signals.getVelocityRPM();
+        tempC = signals.getTempC();
+        voltageIn = signals.getVoltageIn();
+        currentOut = signals.getCurrentOut();
+        currentIn = signals.getCurrentIn();
+
+        faults = signals.getActiveFaultBits();
+        stickyFaults = signals.getStickyFaultBits();
+        warnings = 0;
+        stickyWarnings = 0;
+
+        connected = signals.motor.isConnected();
+        alive = signals.motor.isAlive();
+        hardStopForward = (faults & TalonFXFaults.FORWARD_HARD_LIMIT) != 0;
+        hardStopReverse = (faults & TalonFXFaults.REVERSE_HARD_LIMIT) != 0;
+        softStopForward = (faults & TalonFXFaults.FORWARD_SOFT_LIMIT) != 0;
+        softStopReverse = (faults & TalonFXFaults.REVERSE_SOFT_LIMIT) != 0;
+        criticalFaultsActive = TalonFXFaults.hasCriticalFaults(faults);
+        criticalStickyFaultsActive = TalonFXFaults.hasCriticalFaults(stickyFaults);
+        criticalWarningsActive = false;
+        criticalStickyWarningsActive = false;
+        updateOutputs(signals);
+    }
+
+    /**
+     * Refill only what the code commands (duty cycle, output voltage, closed loop target, control mode, enable). During
+     * replay Logger fills the sensor fields from the log and these from the code being replayed
+     */
+    public void updateOutputs(TalonFXSignals signals) {
+        dutyCycle = signals.getDutyCycle();
+        voltageOut = signals.getVoltageOut();
+        targetRots = signals.getTargetRots();
+        controlMode = signals.getControlMode().value;
+        enabled = signals.isEnabled();
+    }
+
+    public void update(SparkMax motor) {
+        positionRots = motor.getEncoder().getPosition();
+        velocityRPM = motor.getEncoder().getVelocity();
+        tempC = motor.getMotorTemperature();
+        voltageIn = motor.getBusVoltage();
+        currentOut = motor.getOutputCurrent();
+        currentIn = 0;
+
+        faults = SparkMaxUtils.packFaults(motor.getFaults());
+        stickyFaults = SparkMaxUtils.packFaults(motor.getStickyFaults());
+        warnings = SparkMaxUtils.packWarnings(motor.getWarnings());
+        stickyWarnings = SparkMaxUtils.packWarnings(motor.getStickyWarnings());
+
+        connected = (faults & SparkMaxUtils.FAULT_CAN) == 0;
+        alive = false;
+        hardStopForward = motor.getForwardLimitSwitch().isPressed();
+        hardStopReverse = motor.getReverseLimitSwitch().isPressed();
+        softStopForward = false;
+        softStopReverse = false;
+        criticalFaultsActive = SparkMaxUtils.hasCriticalFaults(faults);
+        criticalStickyFaultsActive = SparkMaxUtils.hasCriticalFaults(stickyFaults);
+        criticalWarningsActive = SparkMaxUtils.hasCriticalWarnings(warnings);
+        criticalStickyWarningsActive = SparkMaxUtils.hasCriticalWarnings(stickyWarnings);
+        updateOutputs(motor);
+    }
+
+    /**
+     * Same as updateOutputs(TalonFXSignals), voltageIn must already be filled
+     */
+    public void updateOutputs(SparkMax motor) {
+        dutyCycle = motor.getAppliedOutput();
+        voltageOut = dutyCycle * voltageIn;
+        targetRots = Double.NaN;
+        controlMode = -1;
+        enabled = false;
+    }
+
+    public static final class MotorTelemetryStruct implements Struct<MotorTelemetry> {
+
+        private static final int SIZE = kSizeDouble * 9 + kSizeInt64 * 4 + kSizeInt32 + kSizeBool * 11;
+
+        @Override
+        public Class<MotorTelemetry> getTypeClass() {
+            return MotorTelemetry.class;
+        }
+
+        @Override
+        public String getTypeName() {
+            return "MotorTelemetry";
+        }
+
+        @Override
+        public int getSize() {
+            return SIZE;
+        }
+
+        @Override
+        public String getSchema() {
+            return "double positionRots;double velocityRPM;double tempC;double dutyCycle;double voltageOut;"
+                    + "double voltageIn;double currentOut;double currentIn;double targetRots;"
+                    + "int64 faults;int64 stickyFaults;int64 warnings;int64 stickyWarnings;int32 controlMode;"
+                    + "bool connected;bool alive;bool enabled;bool hardStopForward;bool hardStopReverse;"
+                    + "bool softStopForward;bool softStopReverse;bool criticalFaultsActive;"
+                    + "bool criticalStickyFaultsActive;bool criticalWarningsActive;bool criticalStickyWarningsActive";
+        }
+
+        @Override
+        public MotorTelemetry unpack(ByteBuffer bb) {
+            MotorTelemetry val = new MotorTelemetry();
+            unpackInto(val, bb);
+            return val;
+        }
+
+        @Override
+        public void unpackInto(MotorTelemetry out, ByteBuffer bb) {
+            out.positionRots = bb.getDouble();
+            out.velocityRPM = bb.getDouble();
+            out.tempC = bb.getDouble();
+            out.dutyCycle = bb.getDouble();
+            out.voltageOut = bb.getDouble();
+            out.voltageIn = bb.getDouble();
+            out.currentOut = bb.getDouble();
+            out.currentIn = bb.getDouble();
+            out.targetRots = bb.getDouble();
+            out.faults = bb.getLong();
+            out.stickyFaults = bb.getLong();
+            out.warnings = bb.getLong();
+            out.stickyWarnings = bb.getLong();
+            out.controlMode = bb.getInt();
+            out.connected = bb.get() != 0;
+            out.alive = bb.get() != 0;
+            out.enabled = bb.get() != 0;
+            out.hardStopForward = bb.get() != 0;
+            out.hardStopReverse = bb.get() != 0;
+            out.softStopForward = bb.get() != 0;
+            out.softStopReverse = bb.get() != 0;
+            out.criticalFaultsActive = bb.get() != 0;
+            out.criticalStickyFaultsActive = bb.get() != 0;
+            out.criticalWarningsActive = bb.get() != 0;
+            out.criticalStickyWarningsActive = bb.get() != 0;
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, MotorTelemetry value) {
+            bb.putDouble(value.positionRots);
+            bb.putDouble(value.velocityRPM);
+            bb.putDouble(value.tempC);
+            bb.putDouble(value.dutyCycle);
+            bb.putDouble(value.voltageOut);
+            bb.putDouble(value.voltageIn);
+            bb.putDouble(value.currentOut);
+            bb.putDouble(value.currentIn);
+            bb.putDouble(value.targetRots);
+            bb.putLong(value.faults);
+            bb.putLong(value.stickyFaults);
+            bb.putLong(value.warnings);
+            bb.putLong(value.stickyWarnings);
+            bb.putInt(value.controlMode);
+            bb.put((byte) (value.connected ? 1 : 0));
+            bb.put((byte) (value.alive ? 1 : 0));
+            bb.put((byte) (value.enabled ? 1 : 0));
+            bb.put((byte) (value.hardStopForward ? 1 : 0));
+            bb.put((byte) (value.hardStopReverse ? 1 : 0));
+            bb.put((byte) (value.softStopForward ? 1 : 0));
+            bb.put((byte) (value.softStopReverse ? 1 : 0));
+            bb.put((byte) (value.criticalFaultsActive ? 1 : 0));
+            bb.put((byte) (value.criticalStickyFaultsActive ? 1 : 0));
+            bb.put((byte) (value.criticalWarningsActive ? 1 : 0));
+            bb.put((byte) (value.criticalStickyWarningsActive ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Samples the main robot thread's stack from a low priority background thread and counts identical stacks in a fixed
+ * size table. dump() writes the counts in the collapsed format flamegraph.pl and speedscope read ("root;child;leaf
+ * count" per line), so hot spots in robotPeriodic can be found from a real match without a debugger.
+ *
+ * Stacks are aggregated by method, not line. Once the table is full new stacks are counted as dropped, stacks already
+ * in it keep counting. Every sample stops the main thread at a safepoint and allocates the whole trace, so it is off
+ * unless ENABLED is set: turn it on to profile a practice session, not for competition.
+ */
+public class SamplingProfiler {
+
+    // start() does nothing unless this is set, only for hunting down a slow loop
+    public static final boolean ENABLED = false;
+    // ~10 Hz, a few thousand samples over a practice session. Not a multiple of the 20 ms loop so the samples don't
+    // lock onto the same spot in it
+    public static final double DEFAULT_PERIOD_SECONDS = 0.097;
+
+    // power of 2, used as a mask. Filled at most 3/4 so probing stays short
+    private static final int TABLE_CAPACITY = 4096;
+    private static final int MAX_STACKS = TABLE_CAPACITY / 4 * 3;
+    private static final int MAX_DEPTH = 64;
+
+    // sampler thread only
+    private static final long[] hashes = new long[TABLE_CAPACITY];
+    private static final StackTraceElement[][] stacks = new StackTraceElement[TABLE_CAPACITY][];
+    private static final long[] counts = new long[TABLE_CAPACITY];
+    private static int stackCount = 0;
+    private static long sampleCount = 0;
+    private static long droppedCount = 0;
+
+    private static Thread target = null;
+    private static Thread samplerThread = null;
+    private static long periodNanos;
+    private static volatile boolean running = false;
+    private static volatile boolean dumpRequested = false;
+
+    // prevent instantiating objects
+    private SamplingProfiler() {}
+
+    /**
+     * Start sampling the calling thread if ENABLED, call from the Robot constructor
+     */
+    public static synchronized void start(double periodSeconds) {
+        if (!ENABLED || running) return;
+        if (periodSeconds <= 0) {
+            Logger.reportWarning("Sampling period must be positive, using the default", true);
+            periodSeconds = DEFAULT_PERIOD_SECONDS;
+        }
+
+        target = Thread.currentThread();
+        periodNanos = (long) (periodSeconds * 1e9);
+        running = true;
+        samplerThread = new Thread(SamplingProfiler::runSampler, "SamplingProfiler");
+        samplerThread.setDaemon(true);
+        samplerThread.setPriority(Thread.MIN_PRIORITY);
+        samplerThread.start();
+    }
+
+    public static synchronized void stop() {
+        running = false;
+        if (samplerThread != null) LockSupport.unpark(samplerThread);
+        samplerThread = null;
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Write the samples since the last dump to the log directory and start over. The file is written by the sampler
+     * thread, so this is safe to call from disabledInit
+     */
+    public static void dump() {
+        if (!running) return;
+
+        dumpRequested = true;
+        LockSupport.unpark(samplerThread);
+    }
+
+    private static void runSampler() {
+        long next = System.nanoTime();
+        while (running) {
+            if (dumpRequested) {
+                dumpRequested = false;
+                writeDump();
+            }
+
+            next += periodNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            // running behind (or just unparked late), don't try to catch up with a burst of samples
+            if (wait < -periodNanos) next = System.nanoTime();
+
+            sample();
+        }
+    }
+
+    private static void sample() {
+        StackTraceElement[] trace = target.getStackTrace();
+        if (trace.length == 0) return; // thread isn't alive
+
+        int depth = Math.min(trace.length, MAX_DEPTH);
+        long hash = 17;
+        for (int i = 0; i < depth; i++) {
+            hash = hash * 31 + trace[i].getClassName().hashCode();
+            hash = hash * 31 + trace[i].getMethodName().hashCode();
+        }
+        sampleCount++;
+
+        int slot = (int) (hash ^ (hash >>> 32)) & (TABLE_CAPACITY - 1);
+        while (stacks[slot] != null) {
+            if (hashes[slot] == hash && sameMethods(stacks[slot], trace, depth)) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & (TABLE_CAPACITY - 1);
+        }
+
+        if (stackCount >= MAX_STACKS) {
+            droppedCount++;
+            return;
+        }
+
+        // getStackTrace returns a fresh array, keep it when it isn't truncated
+        StackTraceElement[] kept = trace;
+        if (depth < trace.length) {
+            kept = new StackTraceElement[depth];
+            System.arraycopy(trace, 0, kept, 0, depth);
+        }
+        hashes[slot] = hash;
+        stacks[slot] = kept;
+        counts[slot] = 1;
+        stackCount++;
+    }
+
+    private static boolean sameMethods(StackTraceElement[] stored, StackTraceElement[] trace, int depth) {
+        if (stored.length != depth) return false;
+
+        for (int i = 0; i < depth; i++) {
+            if (!stored[i].getMethodName().equals(trace[i].getMethodName())) return false;
+            if (!stored[i].getClassName().equals(trace[i].getClassName())) return false;
+        }
+        return true;
+    }
+
+    private static void writeDump() {
+        if (sampleCount == 0) return;
+
+        Path file = Paths.get(DataLogManager.getLogDir(), "profile_" + System.currentTimeMillis() + ".collapsed");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder();
+            for (int slot = 0; slot < TABLE_CAPACITY; slot++) {
+                StackTraceElement[] stack = stacks[slot];
+                if (stack == null) continue;
+
+                // collapsed stacks go root first, getStackTrace is leaf first
+                line.setLength(0);
+                if (stack.length == MAX_DEPTH) line.append("[truncated];");
+                for (int i = stack.length - 1; i >= 0; i--) {
+                    line.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+                    if (i > 0) line.append(';');
+                }
+                line.append(' ').append(counts[slot]).append('\n');
+                writer.write(line.toString());
+            }
+
+            Logger.println("Wrote " + sampleCount + " profiler samples (" + stackCount + " stacks, " + droppedCount
+                    + " dropped) to " + file);
+        } catch (IOException e) {
+            Logger.reportWarning(e, false);
+        }
+
+        for (int slot = 0; slot < TABLE_CAPACITY; slot++) {
+            stacks[slot] = null;
+            counts[slot] = 0;
+        }
+        stackCount = 0;
+        sampleCount = 0;
+        droppedCount = 0;
+    }
+}
@@ -0,0 +1,150 @@
+package frc.robot.utils;
+
+import java.util.Arrays;
+
+/**
+ * Rolling min/max/mean/stdDev and p50/p95 over the last windowSamples values of a signal, e.g. a motor's current or
+ * the battery voltage. Values go into a primitive ring buffer, the stats are only computed and published once per
+ * publish period, under subsystem/keyStats/, so a dashboard can show trends without streaming every sample.
+ *
+ * Feed it with add() every loop, or attach it to a key with LogKey.DoubleKey.attachStats so every set() feeds it.
+ * Not thread safe, add from one thread.
+ */
+public class SignalStats {
+
+    private final double[] window;
+    // sorted copy for the percentiles, reused every publish
+    private final double[] sorted;
+    private int head = 0;
+    private int size = 0;
+    private final int publishPeriod;
+    private int untilPublish;
+
+    private double min = Double.NaN, max = Double.NaN, mean = Double.NaN, stdDev = Double.NaN;
+    private double p50 = Double.NaN, p95 = Double.NaN;
+
+    private final LogKey.DoubleKey minKey, maxKey, meanKey, stdDevKey, p50Key, p95Key;
+
+    /**
+     * e.g. a window of 250 samples is the last 5 s at the default 20 ms loop
+     */
+    public SignalStats(String subsystem, String key, int windowSamples, LogRate publishRate) {
+        if (windowSamples < 1) {
+            Logger.reportWarning("Stats window must hold at least one sample", true);
+            windowSamples = 1;
+        }
+        if (publishRate == null) {
+            Logger.reportWarning("Cannot publish stats at a null LogRate, using HZ_1", true);
+            publishRate = LogRate.HZ_1;
+        }
+
+        window = new double[windowSamples];
+        sorted = new double[windowSamples];
+        publishPeriod = publishRate.periodLoops;
+        untilPublish = publishPeriod;
+
+        String root = subsystem + "/" + key + "Stats";
+        minKey = Logger.doubleKey(root, "min");
+        maxKey = Logger.doubleKey(root, "max");
+        meanKey = Logger.doubleKey(root, "mean");
+        stdDevKey = Logger.doubleKey(root, "stdDev");
+        p50Key = Logger.doubleKey(root, "p50");
+        p95Key = Logger.doubleKey(root, "p95");
+    }
+
+    /**
+     * Add a sample, NaN is skipped. Publishes the stats once every publish period worth of calls
+     */
+    public void add(double val) {
+        if (!Double.isNaN(val)) {
+            window[head] = val;
+            head++;
+            if (head == window.length) head = 0;
+            if (size < window.length) size++;
+        }
+
+        untilPublish--;
+        if (untilPublish > 0) return;
+
+        untilPublish = publishPeriod;
+        update();
+        minKey.set(min);
+        maxKey.set(max);
+        meanKey.set(mean);
+        stdDevKey.set(stdDev);
+        p50Key.set(p50);
+        p95Key.set(p95);
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // the getters return the values from the last publish
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return stdDev;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public int getSampleCount() {
+        return size;
+    }
+
+    private void update() {
+        if (size == 0) {
+            min = max = mean = stdDev = p50 = p95 = Double.NaN;
+            return;
+        }
+
+        // recomputed from the window instead of kept as running sums, so there is no drift and no per-sample cost
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += window[i];
+        }
+        mean = sum / size;
+
+        double squares = 0;
+        for (int i = 0; i < size; i++) {
+            double diff = window[i] - mean;
+            squares += diff * diff;
+        }
+        stdDev = Math.sqrt(squares / size);
+
+        // until the window fills, the samples are the first size slots
+        System.arraycopy(window, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        min = sorted[0];
+        max = sorted[size - 1];
+        p50 = percentile(0.5);
+        p95 = percentile(0.95);
+    }
+
+    /**
+     * Nearest rank percentile of the sorted samples
+     */
+    private double percentile(double fraction) {
+        int rank = (int) Math.ceil(fraction * size);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
@@ -6,30 +6,92 @@ import com.revrobotics.spark.SparkMax;
 
 public class SparkMaxUtils {
 
+    // packed fault bits, bit i is named by FAULT_NAMES[i]
+    public static final long FAULT_CAN = 1L << 0,
+            FAULT_ESC_EEPROM = 1L << 1,
+            FAULT_FIRMWARE = 1L << 2,
+            FAULT_GATE_DRIVER = 1L << 3,
+            FAULT_MOTOR_TYPE = 1L << 4,
+            FAULT_OTHER = 1L << 5,
+            FAULT_SENSOR = 1L << 6,
+            FAULT_TEMPERATURE = 1L << 7;
+
+    // packed warning bits, bit i is named by WARNING_NAMES[i]
+    public static final long WARNING_BROWNOUT = 1L << 0,
+            WARNING_ESC_EEPROM = 1L << 1,
+            WARNING_EXT_EEPROM = 1L << 2,
+            WARNING_HAS_RESET = 1L << 3,
+            WARNING_OTHER = 1L << 4,
+            WARNING_OVERCURRENT = 1L << 5,
+            WARNING_SENSOR = 1L << 6,
+            WARNING_STALL = 1L << 7;
+
+    public static final long CRITICAL_FAULT_MASK = FAULT_CAN
+            | FAULT_ESC_EEPROM
+            | FAULT_FIRMWARE
+            | FAULT_GATE_DRIVER
+            | FAULT_MOTOR_TYPE
+            | FAULT_OTHER
+            | FAULT_SENSOR
+            | FAULT_TEMPERATURE;
+
+    public static final long CRITICAL_WARNING_MASK = WARNING_BROWNOUT
+            | WARNING_ESC_EEPROM
+            | WARNING_EXT_EEPROM
+            | WARNING_OTHER
+            | WARNING_OVERCURRENT
+            | WARNING_SENSOR;
+
+    public static final String[] FAULT_NAMES = {
+        "can", "escEeprom", "firmware", "gateDriver", "motorType", "other", "sensor", "temperature"
+    };
+
+    public static final String[] WARNING_NAMES = {
+        "brownout", "escEeprom", "extEeprom", "hasReset", "other", "overcurrent", "sensor", "stall"
+    };
+
     private SparkMaxUtils() {}
 
+    public static long packFaults(Faults faults) {
+        if (faults == null) return 0;
+
+        return (faults.can ? FAULT_CAN : 0)
+                | (faults.escEeprom ? FAULT_ESC_EEPROM : 0)
+                | (faults.firmware ? FAULT_FIRMWARE : 0)
+                | (faults.gateDriver ? FAULT_GATE_DRIVER : 0)
+                | (faults.motorType ? FAULT_MOTOR_TYPE : 0)
+                | (faults.other ? FAULT_OTHER : 0)
+                | (faults.sensor ? FAULT_SENSOR : 0)
+                | (faults.temperature ? FAULT_TEMPERATURE : 0);
+    }
+
+    public static long packWarnings(Warnings warnings) {
+        if (warnings == null) return 0;
+
+        return (warnings.brownout ? WARNING_BROWNOUT : 0)
+                | (warnings.escEeprom ? WARNING_ESC_EEPROM : 0)
+                | (warnings.extEeprom ? WARNING_EXT_EEPROM : 0)
+                | (warnings.hasReset ? WARNING_HAS_RESET : 0)
+                | (warnings.other ? WARNING_OTHER : 0)
+                | (warnings.overcurrent ? WARNING_OVERCURRENT : 0)
+                | (warnings.sensor ? WARNING_SENSOR : 0)
+                | (warnings.stall ? WARNING_STALL : 0);
+    }
+
+    public static boolean hasCriticalFaults(long faultBits) {
+        return (faultBits & CRITICAL_FAULT_MASK) != 0;
+    }
+
+    public static boolean hasCriticalWarnings(long warningBits) {
+        return (warningBits & CRITICAL_WARNING_MASK) != 0;
+    }
+
     public static boolean hasCriticalFaults(Faults faults) {
-        if (faults == null) return false;
-
-        return faults.can
-                || faults.escEeprom
-                || faults.firmware
-                || faults.gateDriver
-                || faults.motorType
-                || faults.other
-                || faults.sensor
-                || faults.temperature;
+        return hasCriticalFaults(packFaults(faults));
     }
 
     public static boolean hasCriticalWarnings(Warnings warnings) {
-        if (warnings == null) return false;
-
-        return warnings.brownout
-                || warnings.escEeprom
-                || warnings.extEeprom
-                || warnings.other
-                || warnings.overcurrent
-                || warnings.sensor;
+        return hasCriticalWarnings(packWarnings(warnings));
     }
 
     public static boolean isConnected(SparkMax motor) {
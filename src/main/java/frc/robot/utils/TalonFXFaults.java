@@ -1,49 +1,188 @@
 package frc.robot.utils;
 
-public record TalonFXFaults(
-        boolean bootDuringEnable,
-        boolean bridgeBrownout,
-        boolean deviceTemp,
-        boolean forwardHardLimit,
-        boolean forwardSoftLimit,
-        boolean fusedSensorOutOfSync,
-        boolean hardware,
-        boolean missingDifferentialFX,
-        boolean missingHardLimitRemote,
-        boolean missingSoftLimitRemote,
-        boolean overSupplyV,
-        boolean procTemp,
-        boolean remoteSensorDataInvalid,
-        boolean remoteSensorPosOverflow,
-        boolean remoteSensorReset,
-        boolean reverseHardLimit,
-        boolean reverseSoftLimit,
-        boolean staticBrakeDisabled,
-        boolean statorCurrLimit,
-        boolean supplyCurrLimit,
-        boolean undervoltage,
-        boolean unlicensedFeatureInUse,
-        boolean unstableSupplyV,
-        boolean usingFusedCANCoderWhileUnlicensed) {
+/**
+ * TalonFX faults packed into a single long, one bit per fault. Bit i is named by BIT_NAMES[i], which is also what gets
+ * published as the schema for the logged fault integers.
+ */
+public record TalonFXFaults(long bits) {
+
+    public static final long BOOT_DURING_ENABLE = 1L << 0,
+            BRIDGE_BROWNOUT = 1L << 1,
+            DEVICE_TEMP = 1L << 2,
+            FORWARD_HARD_LIMIT = 1L << 3,
+            FORWARD_SOFT_LIMIT = 1L << 4,
+            FUSED_SENSOR_OUT_OF_SYNC = 1L << 5,
+            HARDWARE = 1L << 6,
+            MISSING_DIFFERENTIAL_FX = 1L << 7,
+            MISSING_HARD_LIMIT_REMOTE = 1L << 8,
+            MISSING_SOFT_LIMIT_REMOTE = 1L << 9,
+            OVER_SUPPLY_V = 1L << 10,
+            PROC_TEMP = 1L << 11,
+            REMOTE_SENSOR_DATA_INVALID = 1L << 12,
+            REMOTE_SENSOR_POS_OVERFLOW = 1L << 13,
+            REMOTE_SENSOR_RESET = 1L << 14,
+            REVERSE_HARD_LIMIT = 1L << 15,
+            REVERSE_SOFT_LIMIT = 1L << 16,
+            STATIC_BRAKE_DISABLED = 1L << 17,
+            STATOR_CURR_LIMIT = 1L << 18,
+            SUPPLY_CURR_LIMIT = 1L << 19,
+            UNDERVOLTAGE = 1L << 20,
+            UNLICENSED_FEATURE_IN_USE = 1L << 21,
+            UNSTABLE_SUPPLY_V = 1L << 22,
+            USING_FUSED_CANCODER_WHILE_UNLICENSED = 1L << 23;
+
+    // everything except the limit switches and the stator current limit
+    public static final long CRITICAL_MASK = BOOT_DURING_ENABLE
+            | BRIDGE_BROWNOUT
+            | DEVICE_TEMP
+            | FUSED_SENSOR_OUT_OF_SYNC
+            | HARDWARE
+            | MISSING_DIFFERENTIAL_FX
+            | MISSING_HARD_LIMIT_REMOTE
+            | MISSING_SOFT_LIMIT_REMOTE
+            | OVER_SUPPLY_V
+            | PROC_TEMP
+            | REMOTE_SENSOR_DATA_INVALID
+            | REMOTE_SENSOR_POS_OVERFLOW
+            | REMOTE_SENSOR_RESET
+            | SUPPLY_CURR_LIMIT
+            | UNDERVOLTAGE
+            | UNLICENSED_FEATURE_IN_USE
+            | UNSTABLE_SUPPLY_V
+            | USING_FUSED_CANCODER_WHILE_UNLICENSED;
+
+    public static final int BIT_COUNT = 24;
+
+    public static final String[] BIT_NAMES = {
+        "bootDuringEnable",
+        "bridgeBrownout",
+        "deviceTemp",
+        "forwardHardLimit",
+        "forwardSoftLimit",
+        "fusedSensorOutOfSync",
+        "hardware",
+        "missingDifferentialFX",
+        "missingHardLimitRemote",
+        "missingSoftLimitRemote",
+        "overSupplyV",
+        "procTemp",
+        "remoteSensorDataInvalid",
+        "remoteSensorPosOverflow",
+        "remoteSensorReset",
+        "reverseHardLimit",
+        "reverseSoftLimit",
+        "staticBrakeDisabled",
+        "statorCurrLimit",
+        "supplyCurrLimit",
+        "undervoltage",
+        "unlicensedFeatureInUse",
+        "unstableSupplyV",
+        "usingFusedCANCoderWhileUnlicensed"
+    };
+
+    public static final TalonFXFaults NONE = new TalonFXFaults(0);
+
+    public static boolean hasCriticalFaults(long bits) {
+        return (bits & CRITICAL_MASK) != 0;
+    }
 
     public boolean hasCriticalFaults() {
-        return bootDuringEnable
-                || bridgeBrownout
-                || deviceTemp
-                || fusedSensorOutOfSync
-                || hardware
-                || missingDifferentialFX
-                || missingHardLimitRemote
-                || missingSoftLimitRemote
-                || overSupplyV
-                || procTemp
-                || remoteSensorDataInvalid
-                || remoteSensorPosOverflow
-                || remoteSensorReset
-                || supplyCurrLimit
-                || undervoltage
-                || unlicensedFeatureInUse
-                || unstableSupplyV
-                || usingFusedCANCoderWhileUnlicensed;
+        return hasCriticalFaults(bits);
+    }
+
+    public boolean bootDuringEnable() {
+        return (bits & BOOT_DURING_ENABLE) != 0;
+    }
+
+    public boolean bridgeBrownout() {
+        return (bits & BRIDGE_BROWNOUT) != 0;
+    }
+
+    public boolean deviceTemp() {
+        return (bits & DEVICE_TEMP) != 0;
+    }
+
+    public boolean forwardHardLimit() {
+        return (bits & FORWARD_HARD_LIMIT) != 0;
+    }
+
+    public boolean forwardSoftLimit() {
+        return (bits & FORWARD_SOFT_LIMIT) != 0;
+    }
+
+    public boolean fusedSensorOutOfSync() {
+        return (bits & FUSED_SENSOR_OUT_OF_SYNC) != 0;
+    }
+
+    public boolean hardware() {
+        return (bits & HARDWARE) != 0;
+    }
+
+    public boolean missingDifferentialFX() {
+        return (bits & MISSING_DIFFERENTIAL_FX) != 0;
+    }
+
+    public boolean missingHardLimitRemote() {
+        return (bits & MISSING_HARD_LIMIT_REMOTE) != 0;
+    }
+
+    public boolean missingSoftLimitRemote() {
+        return (bits & MISSING_SOFT_LIMIT_REMOTE) != 0;
+    }
+
+    public boolean overSupplyV() {
+        return (bits & OVER_SUPPLY_V) != 0;
+    }
+
+    public boolean procTemp() {
+        return (bits & PROC_TEMP) != 0;
+    }
+
+    public boolean remoteSensorDataInvalid() {
+        return (bits & REMOTE_SENSOR_DATA_INVALID) != 0;
+    }
+
+    public boolean remoteSensorPosOverflow() {
+        return (bits & REMOTE_SENSOR_POS_OVERFLOW) != 0;
+    }
+
+    public boolean remoteSensorReset() {
+        return (bits & REMOTE_SENSOR_RESET) != 0;
+    }
+
+    public boolean reverseHardLimit() {
+        return (bits & REVERSE_HARD_LIMIT) != 0;
+    }
+
+    public boolean reverseSoftLimit() {
+        return (bits & REVERSE_SOFT_LIMIT) != 0;
+    }
+
+    public boolean staticBrakeDisabled() {
+        return (bits & STATIC_BRAKE_DISABLED) != 0;
+    }
+
+    public boolean statorCurrLimit() {
+        return (bits & STATOR_CURR_LIMIT) != 0;
+    }
+
+    public boolean supplyCurrLimit() {
+        return (bits & SUPPLY_CURR_LIMIT) != 0;
+    }
+
+    public boolean undervoltage() {
+        return (bits & UNDERVOLTAGE) != 0;
+    }
+
+    public boolean unlicensedFeatureInUse() {
+        return (bits & UNLICENSED_FEATURE_IN_USE) != 0;
+    }
+
+    public boolean unstableSupplyV() {
+        return (bits & UNSTABLE_SUPPLY_V) != 0;
+    }
+
+    public boolean usingFusedCANCoderWhileUnlicensed() {
+        return (bits & USING_FUSED_CANCODER_WHILE_UNLICENSED) != 0;
     }
 }
@@ -0,0 +1,275 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.ControlModeValue;
+import com.ctre.phoenix6.signals.DeviceEnableValue;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every status signal we read off a TalonFX, grouped so all devices can be refreshed with a single
+ * BaseStatusSignal.refreshAll call per loop (see refreshAll). The getters only read the last refreshed snapshot.
+ *
+ * All TalonFXs must be on the same CAN bus, refreshAll cannot span buses.
+ *
+ * During log replay (see LogReplay) Logger points the sensor getters at the motor's replayed telemetry instead. The
+ * output getters (duty cycle, output voltage, closed loop target, control mode, enable) keep reading the simulated
+ * controller, so they show what the code being replayed commands rather than what the recorded code did.
+ */
+public class TalonFXSignals {
+
+    // fault signal i maps to bit i of TalonFXFaults
+    private static final int FAULT_COUNT = TalonFXFaults.BIT_COUNT;
+
+    private static final Map<TalonFX, TalonFXSignals> groups = new IdentityHashMap<>();
+    private static BaseStatusSignal[] allSignals = new BaseStatusSignal[0];
+    private static StatusCode lastRefreshStatus = StatusCode.OK;
+
+    public final TalonFX motor;
+
+    private final StatusSignal<?> position,
+            velocity,
+            deviceTemp,
+            dutyCycle,
+            motorVoltage,
+            supplyVoltage,
+            statorCurrent,
+            supplyCurrent,
+            closedLoopReference;
+    private final StatusSignal<ControlModeValue> controlMode;
+    private final StatusSignal<DeviceEnableValue> deviceEnable;
+    private final BaseStatusSignal[] faults, stickyFaults;
+    // set by Logger during replay, null otherwise
+    private MotorTelemetry replayed = null;
+
+    private TalonFXSignals(TalonFX motor) {
+        this.motor = motor;
+
+        position = motor.getPosition();
+        velocity = motor.getVelocity();
+        deviceTemp = motor.getDeviceTemp();
+        dutyCycle = motor.getDutyCycle();
+        motorVoltage = motor.getMotorVoltage();
+        supplyVoltage = motor.getSupplyVoltage();
+        statorCurrent = motor.getStatorCurrent();
+        supplyCurrent = motor.getSupplyCurrent();
+        closedLoopReference = motor.getClosedLoopReference();
+        controlMode = motor.getControlMode();
+        deviceEnable = motor.getDeviceEnable();
+
+        faults = new BaseStatusSignal[] {
+            motor.getFault_BootDuringEnable(),
+            motor.getFault_BridgeBrownout(),
+            motor.getFault_DeviceTemp(),
+            motor.getFault_ForwardHardLimit(),
+            motor.getFault_ForwardSoftLimit(),
+            motor.getFault_FusedSensorOutOfSync(),
+            motor.getFault_Hardware(),
+            motor.getFault_MissingDifferentialFX(),
+            motor.getFault_MissingHardLimitRemote(),
+            motor.getFault_MissingSoftLimitRemote(),
+            motor.getFault_OverSupplyV(),
+            motor.getFault_ProcTemp(),
+            motor.getFault_RemoteSensorDataInvalid(),
+            motor.getFault_RemoteSensorPosOverflow(),
+            motor.getFault_RemoteSensorReset(),
+            motor.getFault_ReverseHardLimit(),
+            motor.getFault_ReverseSoftLimit(),
+            motor.getFault_StaticBrakeDisabled(),
+            motor.getFault_StatorCurrLimit(),
+            motor.getFault_SupplyCurrLimit(),
+            motor.getFault_Undervoltage(),
+            motor.getFault_UnlicensedFeatureInUse(),
+            motor.getFault_UnstableSupplyV(),
+            motor.getFault_UsingFusedCANcoderWhileUnlicensed()
+        };
+        stickyFaults = new BaseStatusSignal[] {
+            motor.getStickyFault_BootDuringEnable(),
+            motor.getStickyFault_BridgeBrownout(),
+            motor.getStickyFault_DeviceTemp(),
+            motor.getStickyFault_ForwardHardLimit(),
+            motor.getStickyFault_ForwardSoftLimit(),
+            motor.getStickyFault_FusedSensorOutOfSync(),
+            motor.getStickyFault_Hardware(),
+            motor.getStickyFault_MissingDifferentialFX(),
+            motor.getStickyFault_MissingHardLimitRemote(),
+            motor.getStickyFault_MissingSoftLimitRemote(),
+            motor.getStickyFault_OverSupplyV(),
+            motor.getStickyFault_ProcTemp(),
+            motor.getStickyFault_RemoteSensorDataInvalid(),
+            motor.getStickyFault_RemoteSensorPosOverflow(),
+            motor.getStickyFault_RemoteSensorReset(),
+            motor.getStickyFault_ReverseHardLimit(),
+            motor.getStickyFault_ReverseSoftLimit(),
+            motor.getStickyFault_StaticBrakeDisabled(),
+            motor.getStickyFault_StatorCurrLimit(),
+            motor.getStickyFault_SupplyCurrLimit(),
+            motor.getStickyFault_Undervoltage(),
+            motor.getStickyFault_UnlicensedFeatureInUse(),
+            motor.getStickyFault_UnstableSupplyV(),
+            motor.getStickyFault_UsingFusedCANcoderWhileUnlicensed()
+        };
+    }
+
+    /**
+     * Get the signal group for a motor, creating and registering it if needed. Call this in the subsystem
+     * constructor so the group is already part of refreshAll by the first loop
+     */
+    public static synchronized TalonFXSignals of(TalonFX motor) {
+        if (motor == null) {
+            Logger.reportWarning("Cannot get signals of a null TalonFX", true);
+            return null;
+        }
+
+        TalonFXSignals group = groups.get(motor);
+        if (group == null) {
+            group = new TalonFXSignals(motor);
+            groups.put(motor, group);
+
+            // rebuild the flat list once here so refreshAll never allocates
+            List<BaseStatusSignal> signals = new ArrayList<>();
+            for (TalonFXSignals g : groups.values()) {
+                g.addSignalsTo(signals);
+            }
+            allSignals = signals.toArray(new BaseStatusSignal[0]);
+
+            // make sure the first read before the next refreshAll isn't empty
+            BaseStatusSignal.refreshAll(group.getSignals());
+        }
+
+        return group;
+    }
+
+    /**
+     * Refresh every registered TalonFX signal in one batched call. Call once at the start of robotPeriodic
+     */
+    public static synchronized void refreshAll() {
+        if (allSignals.length == 0) return;
+
+        lastRefreshStatus = BaseStatusSignal.refreshAll(allSignals);
+    }
+
+    /**
+     * Status of the last refreshAll, anything other than OK means at least one signal is stale
+     */
+    public static synchronized StatusCode getLastRefreshStatus() {
+        return lastRefreshStatus;
+    }
+
+    private void addSignalsTo(List<BaseStatusSignal> signals) {
+        for (BaseStatusSignal signal : getSignals()) {
+            signals.add(signal);
+        }
+    }
+
+    private BaseStatusSignal[] getSignals() {
+        BaseStatusSignal[] result = new BaseStatusSignal[11 + FAULT_COUNT * 2];
+        result[0] = position;
+        result[1] = velocity;
+        result[2] = deviceTemp;
+        result[3] = dutyCycle;
+        result[4] = motorVoltage;
+        result[5] = supplyVoltage;
+        result[6] = statorCurrent;
+        result[7] = supplyCurrent;
+        result[8] = closedLoopReference;
+        result[9] = controlMode;
+        result[10] = deviceEnable;
+        System.arraycopy(faults, 0, result, 11, FAULT_COUNT);
+        System.arraycopy(stickyFaults, 0, result, 11 + FAULT_COUNT, FAULT_COUNT);
+        return result;
+    }
+
+    /**
+     * Read the sensor getters from telemetry (kept up to date by the caller) instead of the signals, or null to go back
+     */
+    void replayFrom(MotorTelemetry telemetry) {
+        replayed = telemetry;
+    }
+
+    public double getPositionRots() {
+        if (replayed != null) return replayed.positionRots;
+        return position.getValueAsDouble();
+    }
+
+    public double getVelocityRPM() {
+        if (replayed != null) return replayed.velocityRPM;
+        return velocity.getValueAsDouble() * 60; // signal is in rotations per second
+    }
+
+    public double getTempC() {
+        if (replayed != null) return replayed.tempC;
+        return deviceTemp.getValueAsDouble();
+    }
+
+    public double getDutyCycle() {
+        return dutyCycle.getValueAsDouble();
+    }
+
+    public double getVoltageOut() {
+        return motorVoltage.getValueAsDouble();
+    }
+
+    public double getVoltageIn() {
+        if (replayed != null) return replayed.voltageIn;
+        return supplyVoltage.getValueAsDouble();
+    }
+
+    public double getCurrentOut() {
+        if (replayed != null) return replayed.currentOut;
+        return statorCurrent.getValueAsDouble();
+    }
+
+    public double getCurrentIn() {
+        if (replayed != null) return replayed.currentIn;
+        return supplyCurrent.getValueAsDouble();
+    }
+
+    public double getTargetRots() {
+        return closedLoopReference.getValueAsDouble();
+    }
+
+    public ControlModeValue getControlMode() {
+        return controlMode.getValue();
+    }
+
+    public boolean isEnabled() {
+        return deviceEnable.getValue() == DeviceEnableValue.Enabled;
+    }
+
+    public boolean isConnected() {
+        if (replayed != null) return replayed.connected;
+        return motor.isConnected();
+    }
+
+    public long getActiveFaultBits() {
+        if (replayed != null) return replayed.faults;
+        return pack(faults);
+    }
+
+    public long getStickyFaultBits() {
+        if (replayed != null) return replayed.stickyFaults;
+        return pack(stickyFaults);
+    }
+
+    public TalonFXFaults getActiveFaults() {
+        return new TalonFXFaults(getActiveFaultBits());
+    }
+
+    public TalonFXFaults getStickyFaults() {
+        return new TalonFXFaults(getStickyFaultBits());
+    }
+
+    private static long pack(BaseStatusSignal[] signals) {
+        long bits = 0;
+        for (int i = 0; i < signals.length; i++) {
+            if (signals[i].getValueAsDouble() != 0) bits |= 1L << i;
+        }
+        return bits;
+    }
+}
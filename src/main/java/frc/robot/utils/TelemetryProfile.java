@@ -0,0 +1,84 @@
+package frc.robot.utils;
+
+import java.util.Map;
+
+/**
+ * Named sets of Logger rate, dashboard and dashboard rate prefix rules, switched at runtime with Logger.setProfile or
+ * by writing the name to the /logger/profile NT topic. A profile replaces every prefix rule, rates and dashboard flags
+ * set on a single LogKey stay until a rule of the new profile covers that key
+ */
+public enum TelemetryProfile {
+    /**
+     * Matches: motors, alerts and robot state on the dashboard, profiler/GC/logger diagnostics only in the DataLog.
+     * Motor structs are logged at the flight recorder's rate and the shooter's only reach NT at 2 Hz
+     */
+    COMPETITION {
+        @Override
+        void addRules(
+                Map<String, LogRate> rates, Map<String, Boolean> dashboard, Map<String, LogRate> dashboardRates) {
+            dashboard.put("profiler", false);
+            dashboard.put("gc", false);
+            dashboard.put("logger", false);
+            dashboard.put("boot", false);
+            dashboard.put("schema", false);
+            // counters, one sample a second is plenty
+            rates.put("logger", LogRate.HZ_1);
+            addMotorRates(rates);
+            // the shooter's velocity and current windows (DashboardStream) already show the fast part at 10 Hz
+            dashboardRates.put("shooter/lShooter/telemetry", LogRate.HZ_2);
+            dashboardRates.put("shooter/rShooter/telemetry", LogRate.HZ_2);
+        }
+    },
+    /**
+     * Pit: everything on the dashboard, the logger's own counters slowed down and motor structs at the flight
+     * recorder's rate
+     */
+    PIT {
+        @Override
+        void addRules(
+                Map<String, LogRate> rates, Map<String, Boolean> dashboard, Map<String, LogRate> dashboardRates) {
+            rates.put("logger", LogRate.HZ_2);
+            addMotorRates(rates);
+        }
+    },
+    /**
+     * No rules, every key on the dashboard every loop, motor structs included
+     */
+    DEBUG {
+        @Override
+        void addRules(
+                Map<String, LogRate> rates, Map<String, Boolean> dashboard, Map<String, LogRate> dashboardRates) {}
+    };
+
+    // every motor's telemetry struct, see Logger.log
+    private static final String[] MOTOR_TELEMETRY = {
+        "elev/motor/telemetry",
+        "shooter/lShooter/telemetry",
+        "shooter/rShooter/telemetry",
+        "climb/lever/telemetry",
+        "climb/clamp/telemetry"
+    };
+
+    /**
+     * The profile for the robot's state: DEBUG in test mode, COMPETITION with the FMS attached, PIT otherwise
+     */
+    public static TelemetryProfile forMode(boolean testMode, boolean fmsAttached) {
+        if (testMode) return DEBUG;
+        return fmsAttached ? COMPETITION : PIT;
+    }
+
+    // the flight recorder keeps every loop of the motors in memory, so the DataLog doesn't need them every loop. Same
+    // rate it sets on each motor, as a rule so switching profiles doesn't drop it back to every loop
+    private static void addMotorRates(Map<String, LogRate> rates) {
+        for (String path : MOTOR_TELEMETRY) {
+            rates.put(path, FlightRecorder.MOTOR_LOG_RATE);
+        }
+    }
+
+    /**
+     * Fill in this profile's prefix rules, same meaning as Logger.setRate, Logger.setDashboard and
+     * Logger.setDashboardRate
+     */
+    abstract void addRules(
+            Map<String, LogRate> rates, Map<String, Boolean> dashboard, Map<String, LogRate> dashboardRates);
+}
@@ -0,0 +1,75 @@
+package frc.robot.utils;
+
+/**
+ * Fixed-memory histogram of durations in nanoseconds. Buckets are 2^bucketShift ns wide so recording is a shift
+ * instead of a division, anything past the last bucket only counts towards the overflow and the max.
+ *
+ * Not thread safe, record and read from the same thread.
+ */
+public class TimingHistogram {
+
+    private final int bucketShift;
+    private final int[] counts;
+    private int overflow = 0;
+    private int count = 0;
+    private long maxNanos = 0;
+
+    /**
+     * e.g. a shift of 16 (~65 us buckets) and 512 buckets covers ~33 ms
+     */
+    public TimingHistogram(int bucketShift, int bucketCount) {
+        this.bucketShift = bucketShift;
+        counts = new int[bucketCount];
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        long bucket = nanos >>> bucketShift;
+        if (bucket < counts.length) {
+            counts[(int) bucket]++;
+        } else {
+            overflow++;
+        }
+        count++;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /**
+     * Upper edge of the bucket holding the given fraction (0-1) of samples, capped at the max. 0 if empty
+     */
+    public long getPercentileNanos(double fraction) {
+        if (count == 0) return 0;
+
+        long target = (long) Math.ceil(fraction * count);
+        if (target < 1) target = 1;
+
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min((long) (i + 1) << bucketShift, maxNanos);
+        }
+        return maxNanos; // it's in the overflow
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getOverflowCount() {
+        return overflow;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        overflow = 0;
+        count = 0;
+        maxNanos = 0;
+    }
+}
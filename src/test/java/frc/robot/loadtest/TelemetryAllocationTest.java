@@ -0,0 +1,53 @@
+package frc.robot.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.utils.Logger;
+import frc.robot.utils.LoopProfiler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+// gates ./gradlew test on the telemetry loop's steady-state heap allocation, see TelemetryLoadTest for the full report
+class TelemetryAllocationTest {
+
+    private static final int MOTORS = 20;
+    // enough loops for the hot paths to get past the interpreter before anything is measured
+    private static final int LOOPS = 2000;
+    // the motor paths are meant to be allocation free, this only leaves room for a stray boxed value or fault object.
+    // Lower these when allocation is taken out of the loop, only raise them along with the change that needs it
+    private static final long BYTES_PER_MOTOR_PER_LOOP_BUDGET = 32;
+    // Logger.periodic and the loop counters, independent of the motor count
+    private static final long FIXED_BYTES_PER_LOOP_BUDGET = 256;
+
+    private static TelemetryLoadTest loadTest;
+
+    @BeforeAll
+    static void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        Logger.init();
+        Logger.setDeltaMode(true, 50); // same as Robot
+        loadTest = new TelemetryLoadTest();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        loadTest.close();
+    }
+
+    @Test
+    void staysUnderAllocationBudget() {
+        assumeTrue(LoopProfiler.getCurrentThreadAllocatedBytes() >= 0, "JVM can't count per-thread allocations");
+
+        // the first run creates the keys and motors and warms up, only the second counts
+        loadTest.run(MOTORS, LOOPS);
+        long bytesPerLoop = loadTest.run(MOTORS, LOOPS);
+
+        long budget = BYTES_PER_MOTOR_PER_LOOP_BUDGET * MOTORS + FIXED_BYTES_PER_LOOP_BUDGET;
+        assertTrue(
+                bytesPerLoop <= budget,
+                MOTORS + " motors allocated " + bytesPerLoop + " bytes per loop, over the budget of " + budget);
+    }
+}
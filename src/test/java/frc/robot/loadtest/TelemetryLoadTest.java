@@ -0,0 +1,200 @@
+package frc.robot.loadtest;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+import com.revrobotics.spark.SparkMax;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import frc.robot.utils.Logger;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.SparkMaxUtils;
+import frc.robot.utils.TalonFXFaults;
+import frc.robot.utils.TalonFXSignals;
+import frc.robot.utils.TimingHistogram;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless load test: drives N simulated motors (alternating TalonFX and SparkMax) through the same Logger device
+ * overloads and alert checks the subsystems use, and prints loop time and CPU per loop as N grows. Loops run back to
+ * back rather than every 20 ms, so the numbers are pure cost. Desktop CPUs are several times faster than the roboRIO,
+ * scale accordingly.
+ *
+ * Options: --motors 3,10,20,40 (counts to step through), --loops 500 (measured loops per step), --async (Logger on
+ * its background thread). Only a report, the allocation budget is enforced by TelemetryAllocationTest
+ */
+public class TelemetryLoadTest {
+
+    private static final int TALONFX_FIRST_ID = 1;
+    private static final int SPARKMAX_FIRST_ID = 31;
+    private static final int WARMUP_LOOPS = 200;
+    private static final double BUDGET_MS = 20;
+    private static final double NANOS_PER_MS = 1e6;
+
+    private final List<SimMotor> motors = new ArrayList<>();
+
+    TelemetryLoadTest() {}
+
+    public static void main(String[] args) {
+        int[] motorCounts = {3, 5, 10, 20, 30, 40};
+        int loops = 500;
+        boolean async = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--motors" -> motorCounts = parseCounts(args[++i]);
+                case "--loops" -> loops = Integer.parseInt(args[++i]);
+                case "--async" -> async = true;
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+
+        HAL.initialize(500, 0);
+        Logger.init();
+        Logger.setDeltaMode(true, 50); // same as Robot
+        Logger.setAsync(async);
+
+        TelemetryLoadTest test = new TelemetryLoadTest();
+        System.out.printf(
+                "%7s %9s %9s %9s %13s %14s %8s %13s%n",
+                "motors", "p50 ms", "p99 ms", "max ms", "thread cpu ms", "process cpu ms", "budget", "alloc B/loop");
+        for (int count : motorCounts) {
+            test.run(count, loops);
+        }
+
+        Logger.setAsync(false);
+        Logger.flush();
+        System.exit(0); // exit explicitly, the CTRE and REV sim threads aren't daemons
+    }
+
+    /**
+     * Prints one row of the report, returns the average heap bytes this thread allocated per measured loop (-1 if the
+     * JVM can't count them)
+     */
+    long run(int motorCount, int loops) {
+        while (motors.size() < motorCount) {
+            motors.add(new SimMotor(motors.size()));
+        }
+
+        for (int i = 0; i < WARMUP_LOOPS; i++) {
+            loop(motorCount, i);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        // ~16 us buckets up to ~33 ms
+        TimingHistogram histogram = new TimingHistogram(14, 2048);
+
+        long allocatedStart = LoopProfiler.getCurrentThreadAllocatedBytes();
+        long threadCpuStart = threads.getCurrentThreadCpuTime();
+        long processCpuStart = os.getProcessCpuTime();
+        for (int i = 0; i < loops; i++) {
+            long start = System.nanoTime();
+            loop(motorCount, WARMUP_LOOPS + i);
+            histogram.record(System.nanoTime() - start);
+        }
+        double threadCpuMs = (threads.getCurrentThreadCpuTime() - threadCpuStart) / NANOS_PER_MS / loops;
+        double processCpuMs = (os.getProcessCpuTime() - processCpuStart) / NANOS_PER_MS / loops;
+        long allocPerLoop =
+                allocatedStart < 0 ? -1 : (LoopProfiler.getCurrentThreadAllocatedBytes() - allocatedStart) / loops;
+
+        double p99Ms = histogram.getPercentileNanos(0.99) / NANOS_PER_MS;
+        System.out.printf(
+                "%7d %9.3f %9.3f %9.3f %13.3f %14.3f %7.0f%% %13d%n",
+                motorCount,
+                histogram.getPercentileNanos(0.5) / NANOS_PER_MS,
+                p99Ms,
+                histogram.getMaxNanos() / NANOS_PER_MS,
+                threadCpuMs,
+                processCpuMs,
+                p99Ms / BUDGET_MS * 100,
+                allocPerLoop);
+        return allocPerLoop;
+    }
+
+    /**
+     * One robotPeriodic worth of telemetry, in the same order as Robot and the subsystems
+     */
+    private void loop(int motorCount, int loop) {
+        TalonFXSignals.refreshAll();
+        for (int i = 0; i < motorCount; i++) {
+            motors.get(i).periodic(loop);
+        }
+        Logger.periodic();
+    }
+
+    void close() {
+        for (SimMotor motor : motors) {
+            motor.close();
+        }
+        motors.clear();
+    }
+
+    private static int[] parseCounts(String arg) {
+        String[] parts = arg.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+
+    private static class SimMotor {
+        private final String name;
+        private final TalonFX talonFX;
+        private final TalonFXSignals signals;
+        private final SparkMax sparkMax;
+        private final Alert disconnected, overheating, faults;
+
+        public SimMotor(int index) {
+            name = "motor" + index;
+            if (index % 2 == 0) {
+                talonFX = new TalonFX(TALONFX_FIRST_ID + index / 2);
+                signals = TalonFXSignals.of(talonFX);
+                sparkMax = null;
+                talonFX.getSimState().setSupplyVoltage(12);
+            } else {
+                talonFX = null;
+                signals = null;
+                sparkMax = new SparkMax(SPARKMAX_FIRST_ID + index / 2, MotorType.kBrushless);
+            }
+
+            disconnected = new Alert("Missing connection to load test " + name, AlertType.kError);
+            overheating = new Alert("Load test " + name + " is overheating", AlertType.kWarning);
+            faults = new Alert("Potentially critical faults active on load test " + name, AlertType.kWarning);
+        }
+
+        public void close() {
+            if (talonFX != null) talonFX.close();
+            if (sparkMax != null) sparkMax.close();
+            disconnected.close();
+            overheating.close();
+            faults.close();
+        }
+
+        public void periodic(int loop) {
+            if (talonFX != null) {
+                // keep the values moving so delta mode has something to publish
+                talonFX.getSimState().setRawRotorPosition(loop * 0.01);
+                talonFX.getSimState().setRotorVelocity(Math.sin(loop * 0.05));
+
+                Logger.log("load", name, signals);
+                disconnected.set(!talonFX.isConnected());
+                overheating.set(signals.getTempC() >= 80);
+                faults.set(TalonFXFaults.hasCriticalFaults(signals.getActiveFaultBits()));
+            } else {
+                Logger.log("load", name, sparkMax);
+                disconnected.set(!SparkMaxUtils.isConnected(sparkMax));
+                overheating.set(sparkMax.getMotorTemperature() >= 80);
+                faults.set(SparkMaxUtils.hasCriticalFaults(sparkMax.getFaults()));
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+// keys are left null (loop markers to the queue), the samples are told apart by their bits
+class LogQueueTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new LogQueue(5).getCapacity());
+        assertEquals(8, new LogQueue(8).getCapacity());
+        assertEquals(2, new LogQueue(0).getCapacity());
+    }
+
+    @Test
+    void keepsOrderAcrossWraparound() {
+        LogQueue queue = new LogQueue(4);
+        List<Long> drained = new ArrayList<>();
+        long next = 0;
+
+        // 3 samples per round never fill the queue, but shift the slots so every round wraps differently
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(queue.offer(null, next, null, next * 10));
+                next++;
+            }
+            assertEquals(3, queue.drain((key, bits, ref, timestamp) -> {
+                assertNull(key);
+                assertEquals(bits * 10, timestamp);
+                drained.add(bits);
+            }));
+        }
+
+        assertEquals(30, drained.size());
+        for (int i = 0; i < drained.size(); i++) {
+            assertEquals(i, drained.get(i));
+        }
+        assertEquals(queue.getTail(), queue.getHead());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void dropsAndCountsWhenFull() {
+        LogQueue queue = new LogQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(null, i, null, 0));
+        }
+        assertFalse(queue.offer(null, 4, null, 0));
+        assertFalse(queue.offer(null, 5, null, 0));
+        assertEquals(2, queue.getDroppedCount());
+
+        // the queued samples are untouched, and freed slots take new ones
+        List<Long> drained = new ArrayList<>();
+        queue.drain((key, bits, ref, timestamp) -> drained.add(bits));
+        assertEquals(List.of(0L, 1L, 2L, 3L), drained);
+        assertTrue(queue.offer(null, 6, null, 0));
+        assertEquals(2, queue.getDroppedCount());
+    }
+
+    @Test
+    void clearsRefsOnceDrained() {
+        LogQueue queue = new LogQueue(2);
+        Object ref = new double[] {1, 2};
+        queue.offer(null, 0, ref, 0);
+        queue.drain((key, bits, drainedRef, timestamp) -> assertEquals(ref, drainedRef));
+
+        queue.offer(null, 1, null, 0);
+        queue.offer(null, 2, null, 0);
+        queue.drain((key, bits, drainedRef, timestamp) -> assertNull(drainedRef));
+    }
+
+    @Test
+    void keepsEachProducersOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        LogQueue queue = new LogQueue(256);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long seq = 0; seq < perProducer; seq++) {
+                    // retry instead of dropping so every sample is accounted for
+                    while (!queue.offer(null, (producer << 32) | seq, null, 0)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] nextSeq = new long[producers];
+        long[] received = {0};
+        go.countDown();
+        long total = (long) producers * perProducer;
+        while (received[0] < total) {
+            queue.drain((key, bits, ref, timestamp) -> {
+                int producer = (int) (bits >>> 32);
+                assertEquals(nextSeq[producer], bits & 0xffffffffL);
+                nextSeq[producer]++;
+                received[0]++;
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextSeq[p]);
+        }
+        assertEquals(total, queue.getHead());
+    }
+}